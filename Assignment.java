@@ -15,8 +15,8 @@ import edu.rit.pj2.Vbl;
  *    @author Christian Heinrich
  */
 public class Assignment implements edu.rit.pj2.Vbl, Comparable<Assignment> {
-   private int[] assignment;
-   private int[] clauses;
+   private long[] assignment;
+   private long[] clauses;
    int trueCount;
    int breakCount;
    int makeCount;
@@ -25,8 +25,8 @@ public class Assignment implements edu.rit.pj2.Vbl, Comparable<Assignment> {
     *    Default constructor
     */
    public Assignment () {
-      this.assignment = new int[0];
-      this.clauses = new int[0];
+      this.assignment = new long[0];
+      this.clauses = new long[0];
       this.makeCount = 0;
       this.breakCount = Integer.MAX_VALUE;
       this.trueCount = 0;
@@ -39,7 +39,7 @@ public class Assignment implements edu.rit.pj2.Vbl, Comparable<Assignment> {
     *    @param   b        the breakCount of the truth assignment
     *    @param   t        the number of clauses that evaluate to true
     */
-   public Assignment (int[] assign, int[] clauses, int t, int b, int m) {
+   public Assignment (long[] assign, long[] clauses, int t, int b, int m) {
       this.assignment = assign.clone();
       this.clauses = clauses.clone();
       this.trueCount = t;
@@ -47,11 +47,11 @@ public class Assignment implements edu.rit.pj2.Vbl, Comparable<Assignment> {
       this.makeCount = m;
    }
 
-   public int[] getAssign() {
+   public long[] getAssign() {
       return this.assignment;
    }
 
-   public int[] getClauses() {
+   public long[] getClauses() {
       return this.clauses;
    }
 
@@ -111,13 +111,25 @@ public class Assignment implements edu.rit.pj2.Vbl, Comparable<Assignment> {
     *           -1, otherwise
     */
    public int compareTo (Assignment other) {
+      return compare (this.trueCount, this.breakCount, this.makeCount,
+                      other.trueCount, other.breakCount, other.makeCount);
+   }
+
+   /**
+    *    Compares two assignments given only their counts, so candidates can be
+    *    ranked without creating Assignment objects
+    *    @return 1, if the first assignment is better than the second assignment
+    *            0, if they are equal
+    *           -1, otherwise
+    */
+   public static int compare (int t1, int b1, int m1, int t2, int b2, int m2) {
       int result = 1;
-      boolean trueCounts = this.trueCount == other.trueCount;
-      boolean breakCounts = this.breakCount == other.breakCount;
-      boolean makeCounts = this.makeCount == other.makeCount;
-      if (this.trueCount < other.trueCount) result = -1;
-      else if (trueCounts && (this.breakCount > other.breakCount)) result = -1;
-      else if (trueCounts && breakCounts && (this.makeCount < other.makeCount)) result = -1;
+      boolean trueCounts = t1 == t2;
+      boolean breakCounts = b1 == b2;
+      boolean makeCounts = m1 == m2;
+      if (t1 < t2) result = -1;
+      else if (trueCounts && (b1 > b2)) result = -1;
+      else if (trueCounts && breakCounts && (m1 < m2)) result = -1;
       else if (trueCounts && breakCounts && makeCounts) result = 0;
       return result;
    }
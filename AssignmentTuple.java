@@ -0,0 +1,112 @@
+/*
+ *    File: AssignmentTuple.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import edu.rit.io.InStream;
+import edu.rit.io.OutStream;
+import edu.rit.pj2.Tuple;
+import java.io.IOException;
+
+/**
+ *    Carries the best truth assignment of one worker task back to the job
+ *
+ *    The assignment is mapped back to the variables of the formula as parsed, so the
+ *    job can print it without preprocessing the formula itself.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class AssignmentTuple extends Tuple {
+   public int worker;
+   public int numVars;
+   public int numClauses;
+   public long[] assign;
+   public long[] clauses;
+   public int trueCount;
+   public int breakCount;
+   public int makeCount;
+   public int thread;
+   public long walk;
+   public long elapsed;
+   public long refuted;
+
+   /**
+    *    Construct a new template tuple
+    */
+   public AssignmentTuple () {
+   }
+
+   /**
+    *    Construct a new result tuple
+    *    @param   worker   the rank of the worker task
+    *    @param   pre      the preprocessed formula that was searched
+    *    @param   best     the best assignment the worker found
+    *    @param   stop     the worker's stop signal, holding who solved the formula and when,
+    *                      or when it was proven unsatisfiable
+    */
+   public AssignmentTuple (int worker, Preprocessor pre, Assignment best, StopSignal stop) {
+      this.worker = worker;
+      this.numVars = pre.getOriginal().getNumVars();
+      this.numClauses = pre.getFormula().getNumClauses();
+      // a worker that made no walk has no assignment
+      this.assign = pre.expand (best.getAssign().length == 0
+                                ? new long[BitVector.words (pre.getFormula().getNumVars() + 1)]
+                                : best.getAssign());
+      this.clauses = best.getClauses();
+      this.trueCount = best.getTrueCount();
+      this.breakCount = best.getBreakCount();
+      this.makeCount = best.getMakeCount();
+      this.thread = stop.getRank();
+      this.walk = stop.getWalk();
+      this.elapsed = stop.getElapsed();
+      this.refuted = stop.getRefuted();
+   }
+
+   /**
+    *    @return the assignment carried by this tuple
+    */
+   public Assignment toAssignment () {
+      return new Assignment (assign, clauses, trueCount, breakCount, makeCount);
+   }
+
+   /**
+    *    Write this tuple to the given out stream
+    */
+   public void writeOut (OutStream out) throws IOException {
+      out.writeInt (worker);
+      out.writeInt (numVars);
+      out.writeInt (numClauses);
+      out.writeLongArray (assign);
+      out.writeLongArray (clauses);
+      out.writeInt (trueCount);
+      out.writeInt (breakCount);
+      out.writeInt (makeCount);
+      out.writeInt (thread);
+      out.writeLong (walk);
+      out.writeLong (elapsed);
+      out.writeLong (refuted);
+   }
+
+   /**
+    *    Read this tuple from the given in stream
+    */
+   public void readIn (InStream in) throws IOException {
+      worker = in.readInt();
+      numVars = in.readInt();
+      numClauses = in.readInt();
+      assign = in.readLongArray();
+      clauses = in.readLongArray();
+      trueCount = in.readInt();
+      breakCount = in.readInt();
+      makeCount = in.readInt();
+      thread = in.readInt();
+      walk = in.readLong();
+      elapsed = in.readLong();
+      refuted = in.readLong();
+   }
+}
@@ -0,0 +1,93 @@
+/*
+ *    File: BitVector.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+/**
+ *    Operations on packed bit vectors stored in long words
+ *
+ *    Bit i lives in word i / 64 at position i % 64, so a lookup is one shift and one mask,
+ *    and counting uses Long.bitCount, which the JIT compiles to a single popcount
+ *    instruction. Truth assignments index their bits by variable number, leaving bit 0
+ *    unused, and clause vectors by clause index.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class BitVector {
+   private BitVector () {
+   }
+
+   /**
+    *    @param   bits  the number of bits to hold
+    *    @return the number of words needed to hold them
+    */
+   public static int words (int bits) {
+      return (bits + 63) >>> 6;
+   }
+
+   /**
+    *    @param   i        the index of a bit
+    *    @param   vector   the bit vector
+    *    @return the value of the bit
+    */
+   public static boolean get (int i, long[] vector) {
+      return (vector[i >>> 6] & (1L << i)) != 0;
+   }
+
+   /**
+    *    Flips the value of a bit
+    *    @param   i        the index of the bit
+    *    @param   vector   the bit vector to modify
+    */
+   public static void flip (int i, long[] vector) {
+      vector[i >>> 6] ^= 1L << i;
+   }
+
+   /**
+    *    Sets a bit
+    *    @param   i        the index of the bit
+    *    @param   vector   the bit vector to modify
+    */
+   public static void set (int i, long[] vector) {
+      vector[i >>> 6] |= 1L << i;
+   }
+
+   /**
+    *    Clears every bit from an index to the end of the vector
+    *    @param   i        the index of the first bit to clear
+    *    @param   vector   the bit vector to modify
+    */
+   public static void clearFrom (int i, long[] vector) {
+      int w = i >>> 6;
+      if (w >= vector.length) return;
+      vector[w] &= (1L << i) - 1L;
+      while (++w < vector.length) vector[w] = 0L;
+   }
+
+   /**
+    *    @param   vector   a bit vector
+    *    @return the number of bits set in the vector
+    */
+   public static int count (long[] vector) {
+      int result = 0;
+      for (long w : vector) result += Long.bitCount (w);
+      return result;
+   }
+
+   /**
+    *    @param   vector   a bit vector
+    *    @param   from     the index of the first bit to show
+    *    @param   to       the index after the last bit to show
+    *    @return the bits as a string of 0s and 1s, lowest bit first
+    */
+   public static String toString (long[] vector, int from, int to) {
+      StringBuilder sb = new StringBuilder (Math.max (0, to - from));
+      for (int i = from; i < to; ++i) sb.append (get (i, vector) ? '1' : '0');
+      return sb.toString();
+   }
+}
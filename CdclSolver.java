@@ -0,0 +1,503 @@
+/*
+ *    File: CdclSolver.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ *    Complete conflict-driven clause learning search, to prove formulas unsatisfiable
+ *    that the local search can only give up on
+ *
+ *    Literals are numbered by their occurrence list code, 2 * var for var and
+ *    2 * var + 1 for -var, so a literal's negation is its code xor 1. Each clause of two
+ *    or more literals watches its first two, and is only visited when one of them
+ *    becomes false. A conflict is analyzed back to its first unique implication point;
+ *    the learned clause is shrunk by dropping literals implied by the others and is
+ *    added to the database. Decisions pick the unassigned variable of highest VSIDS
+ *    activity from a heap, with the polarity it last had. The search restarts on the
+ *    Luby sequence, and at every restart the half of the learned clauses with the most
+ *    distinct decision levels (LBD) is deleted once there are too many of them.
+ *
+ *    The search polls a stop signal, so it can run beside the walkers and give up as
+ *    soon as one of them finds a model.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class CdclSolver {
+   // outcomes of solve(), numbered as by SAT competition solvers
+   public static final int UNKNOWN = 0;
+   public static final int SAT = 10;
+   public static final int UNSAT = 20;
+
+   // conflicts per unit of the Luby restart sequence
+   static final int RESTART_UNIT = 100;
+   static final double VAR_DECAY = 0.95;
+   // learned clauses of this LBD or less are never deleted
+   static final int KEEP_LBD = 2;
+
+   private final int numVars;
+   private final ArrayList<int[]> clauses = new ArrayList<int[]>();
+   private int[][] watches;
+   private int[] watchSize;
+   private boolean ok = true;
+
+   // the learned clauses and their LBDs
+   private int[] learnts = new int[64];
+   private int[] lbd = new int[64];
+   private int numLearnts;
+   private int maxLearnts;
+
+   // the trail of assigned literals, and per variable its level and reason clause
+   private final int[] value;
+   private final int[] level;
+   private final int[] reason;
+   private final int[] trail;
+   private final int[] trailLim;
+   private int trailSize;
+   private int qhead;
+   private int decisionLevel;
+
+   // VSIDS activities in a max-heap, and saved polarities
+   private final double[] activity;
+   private double varInc = 1.0;
+   private final int[] heap;
+   private final int[] heapIndex;
+   private int heapSize;
+   private final boolean[] phase;
+
+   // scratch space of conflict analysis
+   private final boolean[] seen;
+   private final int[] learnt;
+   private final int[] toClear;
+   private final int[] levelStamp;
+   private int stampCount;
+
+   private long conflicts;
+   private long decisions;
+   private long propagations;
+   private long restarts;
+   private int status = UNKNOWN;
+
+   /**
+    *    Loads a formula
+    *    @param   formula  the formula to decide
+    */
+   public CdclSolver (Formula formula) {
+      this.numVars = formula.getNumVars();
+      int codes = 2 * (numVars + 1);
+      this.watches = new int[codes][];
+      this.watchSize = new int[codes];
+      this.value = new int[codes];
+      this.level = new int[numVars + 1];
+      this.reason = new int[numVars + 1];
+      this.trail = new int[numVars + 1];
+      this.trailLim = new int[numVars + 1];
+      this.activity = new double[numVars + 1];
+      this.heap = new int[numVars];
+      this.heapIndex = new int[numVars + 1];
+      this.phase = new boolean[numVars + 1];
+      this.seen = new boolean[numVars + 1];
+      this.learnt = new int[numVars + 1];
+      this.toClear = new int[numVars + 1];
+      this.levelStamp = new int[numVars + 1];
+      Arrays.fill (reason, -1);
+      Arrays.fill (heapIndex, -1);
+      for (int v = 1; v <= numVars; ++v) heapInsert (v);
+
+      int[] literals = formula.getLiterals();
+      int[] clauseStart = formula.getClauseStart();
+      int[] clause = new int[numVars];
+      for (int c = 0; c < formula.getNumClauses() && ok; ++c) {
+         if (formula.isTautology (c)) continue;
+         int n = 0;
+         for (int i = clauseStart[c]; i < clauseStart[c + 1]; ++i) {
+            int p = Formula.code (literals[i]);
+            if (!seen[p >> 1]) {
+               seen[p >> 1] = true;
+               clause[n++] = p;
+            }
+         }
+         for (int i = 0; i < n; ++i) seen[clause[i] >> 1] = false;
+         addOriginal (Arrays.copyOf (clause, n));
+      }
+      this.maxLearnts = Math.max (formula.getNumClauses() / 3, 2000);
+   }
+
+   /**
+    *    Adds a clause of the formula at decision level 0
+    */
+   private void addOriginal (int[] c) {
+      if (c.length == 0) {
+         ok = false;
+      } else if (c.length == 1) {
+         if (value[c[0]] == -1) ok = false;
+         else if (value[c[0]] == 0) enqueue (c[0], -1);
+      } else {
+         attach (c);
+      }
+   }
+
+   /**
+    *    Stores a clause and watches its first two literals
+    *    @return the index of the clause
+    */
+   private int attach (int[] c) {
+      int ci = clauses.size();
+      clauses.add (c);
+      watch (c[0], ci);
+      watch (c[1], ci);
+      return ci;
+   }
+
+   private void watch (int p, int ci) {
+      int[] ws = watches[p];
+      if (ws == null) ws = watches[p] = new int[4];
+      else if (watchSize[p] == ws.length) ws = watches[p] = Arrays.copyOf (ws, 2 * ws.length);
+      ws[watchSize[p]++] = ci;
+   }
+
+   /**
+    *    Makes a literal true
+    *    @param   p     the literal
+    *    @param   from  the clause implying it, or -1 for a decision or a unit
+    */
+   private void enqueue (int p, int from) {
+      value[p] = 1;
+      value[p ^ 1] = -1;
+      level[p >> 1] = decisionLevel;
+      reason[p >> 1] = from;
+      trail[trailSize++] = p;
+   }
+
+   /**
+    *    Propagates every literal on the trail not yet propagated
+    *    @return the index of a falsified clause, or -1
+    */
+   private int propagate () {
+      while (qhead < trailSize) {
+         int falseLit = trail[qhead++] ^ 1;
+         ++propagations;
+         int[] ws = watches[falseLit];
+         int n = watchSize[falseLit];
+         int i = 0, j = 0;
+         while (i < n) {
+            int ci = ws[i++];
+            int[] c = clauses.get (ci);
+            // deleted clauses leave the watch lists lazily
+            if (c == null) continue;
+            if (c[0] == falseLit) {
+               c[0] = c[1];
+               c[1] = falseLit;
+            }
+            if (value[c[0]] == 1) {
+               ws[j++] = ci;
+               continue;
+            }
+
+            // move the watch to any literal that is not false
+            boolean moved = false;
+            for (int k = 2; k < c.length; ++k) {
+               if (value[c[k]] != -1) {
+                  c[1] = c[k];
+                  c[k] = falseLit;
+                  watch (c[1], ci);
+                  moved = true;
+                  break;
+               }
+            }
+            if (moved) continue;
+
+            ws[j++] = ci;
+            if (value[c[0]] == -1) {
+               while (i < n) ws[j++] = ws[i++];
+               watchSize[falseLit] = j;
+               qhead = trailSize;
+               return ci;
+            }
+            enqueue (c[0], ci);
+         }
+         watchSize[falseLit] = j;
+      }
+      return -1;
+   }
+
+   /**
+    *    Derives the first-UIP clause of a conflict into learnt[0..n), the asserting
+    *    literal first and a literal of the backjump level second
+    *    @param   confl the falsified clause
+    *    @return the number of literals learned
+    */
+   private int analyze (int confl) {
+      int pathCount = 0;
+      int p = -1;
+      int n = 1;
+      int idx = trailSize - 1;
+      do {
+         int[] c = clauses.get (confl);
+         for (int k = p == -1 ? 0 : 1; k < c.length; ++k) {
+            int q = c[k];
+            int v = q >> 1;
+            if (seen[v] || level[v] == 0) continue;
+            bump (v);
+            seen[v] = true;
+            if (level[v] >= decisionLevel) ++pathCount;
+            else learnt[n++] = q;
+         }
+         while (!seen[trail[idx] >> 1]) --idx;
+         p = trail[idx--];
+         confl = reason[p >> 1];
+         seen[p >> 1] = false;
+         --pathCount;
+      } while (pathCount > 0);
+      learnt[0] = p ^ 1;
+
+      // drop the literals whose reason is made of other literals of the clause
+      System.arraycopy (learnt, 1, toClear, 0, n - 1);
+      int numClear = n - 1;
+      int m = 1;
+      for (int k = 1; k < n; ++k) {
+         int r = reason[learnt[k] >> 1];
+         if (r == -1 || !redundant (clauses.get (r))) learnt[m++] = learnt[k];
+      }
+      for (int k = 0; k < numClear; ++k) seen[toClear[k] >> 1] = false;
+
+      // the highest level among the rest is the backjump level
+      int max = 1;
+      for (int k = 2; k < m; ++k)
+         if (level[learnt[k] >> 1] > level[learnt[max] >> 1]) max = k;
+      if (m > 1) {
+         int t = learnt[1];
+         learnt[1] = learnt[max];
+         learnt[max] = t;
+      }
+      return m;
+   }
+
+   /**
+    *    @return true if every other literal of a reason clause is in the learned clause
+    *            or fixed at level 0
+    */
+   private boolean redundant (int[] c) {
+      for (int k = 1; k < c.length; ++k) {
+         int v = c[k] >> 1;
+         if (!seen[v] && level[v] > 0) return false;
+      }
+      return true;
+   }
+
+   /**
+    *    @return the number of distinct decision levels of learnt[0..n)
+    */
+   private int lbd (int n) {
+      if (++stampCount == 0) {
+         Arrays.fill (levelStamp, 0);
+         stampCount = 1;
+      }
+      int result = 0;
+      for (int k = 0; k < n; ++k) {
+         int l = level[learnt[k] >> 1];
+         if (levelStamp[l] != stampCount) {
+            levelStamp[l] = stampCount;
+            ++result;
+         }
+      }
+      return result;
+   }
+
+   /**
+    *    Undoes every assignment above a decision level, saving the polarities
+    */
+   private void backtrack (int lvl) {
+      if (decisionLevel <= lvl) return;
+      for (int i = trailSize - 1; i >= trailLim[lvl]; --i) {
+         int p = trail[i];
+         int v = p >> 1;
+         phase[v] = (p & 1) == 0;
+         value[p] = 0;
+         value[p ^ 1] = 0;
+         reason[v] = -1;
+         if (heapIndex[v] < 0) heapInsert (v);
+      }
+      trailSize = trailLim[lvl];
+      qhead = trailSize;
+      decisionLevel = lvl;
+   }
+
+   /**
+    *    Deletes the less useful half of the learned clauses, at decision level 0 where
+    *    none of them is a reason
+    */
+   private void reduce () {
+      int[] count = new int[numVars + 2];
+      for (int i = 0; i < numLearnts; ++i) ++count[Math.min (lbd[i], numVars + 1)];
+
+      // find the LBD above which half of the learned clauses lie
+      int target = numLearnts / 2;
+      int cut = numVars + 1;
+      int above = 0;
+      while (cut > KEEP_LBD && above + count[cut] <= target) above += count[cut--];
+
+      int n = 0;
+      for (int i = 0; i < numLearnts; ++i) {
+         if (Math.min (lbd[i], numVars + 1) > cut) {
+            clauses.set (learnts[i], null);
+         } else {
+            learnts[n] = learnts[i];
+            lbd[n++] = lbd[i];
+         }
+      }
+      numLearnts = n;
+      maxLearnts += maxLearnts / 10;
+   }
+
+   /**
+    *    Decides the formula
+    *    @param   stop  a signal that ends the search early, or null
+    *    @return SAT, UNSAT, or UNKNOWN if stopped
+    */
+   public int solve (StopSignal stop) {
+      if (!ok) return status = UNSAT;
+      long restartLimit = RESTART_UNIT * RestartPolicy.luby (1);
+      long sinceRestart = 0;
+      while (true) {
+         if (stop != null && stop.isStopped()) return status = UNKNOWN;
+         int confl = propagate();
+         if (confl >= 0) {
+            ++conflicts;
+            if (decisionLevel == 0) return status = UNSAT;
+            int n = analyze (confl);
+            backtrack (n == 1 ? 0 : level[learnt[1] >> 1]);
+            if (n == 1) {
+               enqueue (learnt[0], -1);
+            } else {
+               if (numLearnts == learnts.length) {
+                  learnts = Arrays.copyOf (learnts, 2 * numLearnts);
+                  lbd = Arrays.copyOf (lbd, 2 * numLearnts);
+               }
+               lbd[numLearnts] = lbd (n);
+               learnts[numLearnts++] = attach (Arrays.copyOf (learnt, n));
+               enqueue (learnt[0], learnts[numLearnts - 1]);
+            }
+            varInc /= VAR_DECAY;
+
+            if (++sinceRestart >= restartLimit) {
+               backtrack (0);
+               ++restarts;
+               sinceRestart = 0;
+               restartLimit = RESTART_UNIT * RestartPolicy.luby (restarts + 1);
+               if (numLearnts >= maxLearnts) reduce();
+            }
+         } else {
+            int v = 0;
+            while (heapSize > 0 && v == 0) {
+               int u = heapRemoveMax();
+               if (value[2 * u] == 0) v = u;
+            }
+            if (v == 0) return status = SAT;
+            ++decisions;
+            trailLim[decisionLevel++] = trailSize;
+            enqueue (phase[v] ? 2 * v : 2 * v + 1, -1);
+         }
+      }
+   }
+
+   /**
+    *    @return the model found, as a bit vector indexed by variable
+    */
+   public long[] getModel () {
+      long[] result = new long[BitVector.words (numVars + 1)];
+      if (status != SAT) return result;
+      for (int v = 1; v <= numVars; ++v)
+         if (value[2 * v] == 1) BitVector.set (v, result);
+      return result;
+   }
+
+   public int getStatus () {
+      return this.status;
+   }
+
+   public long getConflicts () {
+      return this.conflicts;
+   }
+
+   public long getDecisions () {
+      return this.decisions;
+   }
+
+   public long getPropagations () {
+      return this.propagations;
+   }
+
+   /**
+    *    @return the outcome and effort of the search
+    */
+   public String toString () {
+      return String.format ("CDCL: status=%s conflicts=%d decisions=%d propagations=%d" +
+                            " restarts=%d learned=%d",
+                            status == SAT ? "SAT" : status == UNSAT ? "UNSAT" : "UNKNOWN",
+                            conflicts, decisions, propagations, restarts, numLearnts);
+   }
+
+   /**
+    *    Raises a variable's activity, rescaling all activities before they overflow
+    */
+   private void bump (int v) {
+      if ((activity[v] += varInc) > 1e100) {
+         for (int u = 1; u <= numVars; ++u) activity[u] *= 1e-100;
+         varInc *= 1e-100;
+      }
+      if (heapIndex[v] >= 0) heapUp (heapIndex[v]);
+   }
+
+   private void heapInsert (int v) {
+      heap[heapSize] = v;
+      heapIndex[v] = heapSize;
+      heapUp (heapSize++);
+   }
+
+   private int heapRemoveMax () {
+      int v = heap[0];
+      heapIndex[v] = -1;
+      if (--heapSize > 0) {
+         heap[0] = heap[heapSize];
+         heapIndex[heap[0]] = 0;
+         heapDown (0);
+      }
+      return v;
+   }
+
+   private void heapUp (int i) {
+      int v = heap[i];
+      while (i > 0) {
+         int parent = (i - 1) >> 1;
+         if (activity[heap[parent]] >= activity[v]) break;
+         heap[i] = heap[parent];
+         heapIndex[heap[i]] = i;
+         i = parent;
+      }
+      heap[i] = v;
+      heapIndex[v] = i;
+   }
+
+   private void heapDown (int i) {
+      int v = heap[i];
+      while (true) {
+         int child = 2 * i + 1;
+         if (child >= heapSize) break;
+         if (child + 1 < heapSize && activity[heap[child + 1]] > activity[heap[child]]) ++child;
+         if (activity[heap[child]] <= activity[v]) break;
+         heap[i] = heap[child];
+         heapIndex[heap[i]] = i;
+         i = child;
+      }
+      heap[i] = v;
+      heapIndex[v] = i;
+   }
+}
@@ -0,0 +1,365 @@
+/*
+ *    File: ClauseState.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.util.Arrays;
+
+/**
+ *    Incrementally maintained satisfiability state of a CNF formula under a truth assignment.
+ *
+ *    Every clause carries the number of its literals made true by the current assignment,
+ *    and every variable knows the clauses it appears in positively and negatively. Flipping
+ *    a variable therefore only touches the clauses it occurs in, and the break and make
+ *    counts of a prospective flip can be read off the occurrence lists without changing
+ *    the assignment.
+ *
+ *    The clause database and occurrence lists belong to the shared Formula, so each
+ *    thread can own its own state over the same formula. A state can also be moved to a
+ *    longer formula built by Formula.append, evaluating only the appended clauses.
+ *
+ *    For weighted walks the state also keeps the weighted score of every variable's flip,
+ *    the weight of the clauses it would make less the weight of those it would break. A
+ *    flip updates the scores of the variables of the clauses whose number of true literals
+ *    drops to 0 or 1 or leaves it, and a weight change those of the variables of the one
+ *    clause, so reading a score costs nothing.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class ClauseState {
+   private Formula formula;
+   private int numVars;
+   private int numClauses;
+   private int[] occStart;
+   private int[] occList;
+
+   private int[] numTrue;
+   private long[] assign;
+   private long[] clauses;
+   private final UnsatPool unsat;
+   private int trueCount;
+
+   // the clause weights and the weighted score of every variable, for weighted walks, and
+   // every clause's literals with repeats left out
+   private double[] weight;
+   private double[] score;
+   private int[] scoreLits;
+   private int[] scoreStart;
+
+   /**
+    *    Creates a state over a formula
+    *    @param   formula  the formula, whose clause database is shared
+    */
+   public ClauseState (Formula formula) {
+      this.formula = formula;
+      this.numVars = formula.getNumVars();
+      this.numClauses = formula.getNumClauses();
+      this.occStart = formula.getOccStart();
+      this.occList = formula.getOccList();
+      this.numTrue = new int[numClauses];
+      this.assign = new long[BitVector.words (numVars + 1)];
+      this.clauses = new long[BitVector.words (numClauses)];
+      this.unsat = new UnsatPool (numClauses);
+   }
+
+   /**
+    *    Loads a truth assignment and evaluates every clause against it
+    *
+    *    Bit 0 and the bits above the last variable are cleared, so assignments that agree
+    *    on every variable have equal bit vectors, whatever the start held there.
+    *
+    *    @param   start the truth assignment to load, as a bit vector indexed by variable
+    */
+   public void reset (long[] start) {
+      System.arraycopy (start, 0, assign, 0, assign.length);
+      assign[0] &= ~1L;
+      BitVector.clearFrom (numVars + 1, assign);
+      for (int c = 0; c < numClauses; ++c)
+         numTrue[c] = formula.isTautology (c) ? 1 : 0;
+      for (int var = 1; var <= numVars; ++var) {
+         int l = BitVector.get (var, assign) ? 2 * var : 2 * var + 1;
+         for (int i = occStart[l]; i < occStart[l + 1]; ++i) ++numTrue[occList[i]];
+      }
+      for (int i = 0; i < clauses.length; ++i)
+         clauses[i] = 0L;
+      unsat.clear();
+      for (int c = 0; c < numClauses; ++c) {
+         if (numTrue[c] > 0) BitVector.set (c, clauses);
+         else unsat.add (c);
+      }
+      trueCount = BitVector.count (clauses);
+      if (score != null) rescore();
+   }
+
+   /**
+    *    Keeps the weighted score of every variable from now on
+    *    @param   weight   the weight of every clause, whose changes are passed to reweigh()
+    *                      or rescore()
+    */
+   public void trackWeights (double[] weight) {
+      int[] literals = formula.getLiterals();
+      int[] clauseStart = formula.getClauseStart();
+      this.weight = weight;
+      this.score = new double[numVars + 1];
+      this.scoreLits = new int[literals.length];
+      this.scoreStart = new int[numClauses + 1];
+      int size = 0;
+      for (int c = 0; c < numClauses; ++c) {
+         scoreStart[c] = size;
+         // a tautology never changes, so it never affects a score
+         if (formula.isTautology (c)) continue;
+         for (int i = clauseStart[c]; i < clauseStart[c + 1]; ++i) {
+            boolean repeated = false;
+            for (int j = clauseStart[c]; j < i && !repeated; ++j)
+               repeated = literals[j] == literals[i];
+            if (!repeated) scoreLits[size++] = literals[i];
+         }
+      }
+      scoreStart[numClauses] = size;
+      rescore();
+   }
+
+   /**
+    *    Computes every weighted score afresh, after many weights have changed
+    */
+   public void rescore () {
+      Arrays.fill (score, 0.0);
+      for (int c = 0; c < numClauses; ++c) reweigh (c, weight[c]);
+   }
+
+   /**
+    *    Updates the scores of a clause's variables after a change of its weight
+    *    @param   clause   the index of the clause
+    *    @param   delta    the change of its weight
+    */
+   public void reweigh (int clause, double delta) {
+      // a tautology lists no literals, as it never changes
+      if (scoreStart[clause] == scoreStart[clause + 1]) return;
+      if (numTrue[clause] == 0) {
+         // flipping any of its variables makes the clause
+         for (int i = scoreStart[clause]; i < scoreStart[clause + 1]; ++i)
+            score[Math.abs(scoreLits[i])] += delta;
+      } else if (numTrue[clause] == 1) {
+         // flipping its one true literal breaks it
+         score[trueVar (clause, 0)] -= delta;
+      }
+   }
+
+   /**
+    *    @param   clause   a clause with at least one true literal other than except's
+    *    @param   except   a variable to skip, or 0
+    *    @return the variable of a true literal of the clause
+    */
+   private int trueVar (int clause, int except) {
+      for (int i = scoreStart[clause]; ; ++i) {
+         int v = scoreLits[i];
+         int var = Math.abs(v);
+         if (var != except && BitVector.get (var, assign) == v > 0) return var;
+      }
+   }
+
+   /**
+    *    Moves the state to a formula with clauses appended to this state's formula,
+    *    evaluating only the appended clauses; new variables start false
+    *    @param   longer   this state's formula with clauses appended, by Formula.append
+    */
+   public void extend (Formula longer) {
+      if (score != null) throw new IllegalStateException ("Weighted scores cannot be extended");
+      int from = numClauses;
+      int oldVars = numVars;
+      this.formula = longer;
+      this.numVars = longer.getNumVars();
+      this.numClauses = longer.getNumClauses();
+      this.occStart = longer.getOccStart();
+      this.occList = longer.getOccList();
+      this.numTrue = Arrays.copyOf (numTrue, numClauses);
+      this.assign = Arrays.copyOf (assign, BitVector.words (numVars + 1));
+      this.clauses = Arrays.copyOf (clauses, BitVector.words (numClauses));
+      BitVector.clearFrom (oldVars + 1, assign);
+      BitVector.clearFrom (from, clauses);
+      unsat.grow (numClauses);
+
+      int[] literals = longer.getLiterals();
+      int[] clauseStart = longer.getClauseStart();
+      for (int c = from; c < numClauses; ++c) {
+         // a tautology counts as one true literal, as in reset(), and a repeated literal once
+         int t = 0;
+         if (longer.isTautology (c)) {
+            t = 1;
+         } else {
+            for (int i = clauseStart[c]; i < clauseStart[c + 1]; ++i) {
+               int v = literals[i];
+               if (BitVector.get (Math.abs(v), assign) != v > 0) continue;
+               boolean repeated = false;
+               for (int j = clauseStart[c]; j < i && !repeated; ++j) repeated = literals[j] == v;
+               if (!repeated) ++t;
+            }
+         }
+         numTrue[c] = t;
+         if (t > 0) {
+            BitVector.set (c, clauses);
+            ++trueCount;
+         } else {
+            unsat.add (c);
+         }
+      }
+   }
+
+   /**
+    *    Flips the truth value of a variable and updates the clauses it occurs in
+    *    @param   var   the variable to flip
+    */
+   public void flip (int var) {
+      if (score != null) {
+         weightedFlip (var);
+         return;
+      }
+      // the literal of var that is true now becomes false, and its negation true
+      int falsified = BitVector.get (var, assign) ? 2 * var : 2 * var + 1;
+      int satisfied = falsified ^ 1;
+      for (int i = occStart[falsified]; i < occStart[falsified + 1]; ++i) {
+         int c = occList[i];
+         if (--numTrue[c] == 0) {
+            BitVector.flip (c, clauses);
+            --trueCount;
+            unsat.add (c);
+         }
+      }
+      for (int i = occStart[satisfied]; i < occStart[satisfied + 1]; ++i) {
+         int c = occList[i];
+         if (numTrue[c]++ == 0) {
+            BitVector.flip (c, clauses);
+            ++trueCount;
+            unsat.remove (c);
+         }
+      }
+      BitVector.flip (var, assign);
+   }
+
+   /**
+    *    Flips a variable as flip() does, updating the weighted scores as well
+    *    @param   var   the variable to flip
+    */
+   private void weightedFlip (int var) {
+      int falsified = BitVector.get (var, assign) ? 2 * var : 2 * var + 1;
+      int satisfied = falsified ^ 1;
+      for (int i = occStart[falsified]; i < occStart[falsified + 1]; ++i) {
+         int c = occList[i];
+         if (--numTrue[c] == 0) {
+            BitVector.flip (c, clauses);
+            --trueCount;
+            unsat.add (c);
+            // var no longer breaks it, and any of its variables now makes it
+            score[var] += weight[c];
+            for (int j = scoreStart[c]; j < scoreStart[c + 1]; ++j)
+               score[Math.abs(scoreLits[j])] += weight[c];
+         } else if (numTrue[c] == 1) {
+            // the other true literal now breaks it
+            score[trueVar (c, var)] -= weight[c];
+         }
+      }
+      for (int i = occStart[satisfied]; i < occStart[satisfied + 1]; ++i) {
+         int c = occList[i];
+         if (numTrue[c]++ == 0) {
+            BitVector.flip (c, clauses);
+            ++trueCount;
+            unsat.remove (c);
+            // none of its variables makes it any more, and var now breaks it
+            for (int j = scoreStart[c]; j < scoreStart[c + 1]; ++j)
+               score[Math.abs(scoreLits[j])] -= weight[c];
+            score[var] -= weight[c];
+         } else if (numTrue[c] == 2) {
+            // the literal that was true alone no longer breaks it
+            score[trueVar (c, var)] += weight[c];
+         }
+      }
+      BitVector.flip (var, assign);
+   }
+
+   /**
+    *    @param   var   a variable
+    *    @return the weight of the clauses flipping the variable would make, less the weight
+    *            of those it would break, as kept since trackWeights()
+    */
+   public double weightedScore (int var) {
+      return score[var];
+   }
+
+   /**
+    *    Calculates the breakcount of flipping a variable
+    *    @param   var   the variable that would be flipped
+    *    @return the number of clauses that would become false
+    */
+   public int breakCount (int var) {
+      int result = 0;
+      int l = BitVector.get (var, assign) ? 2 * var : 2 * var + 1;
+      for (int i = occStart[l]; i < occStart[l + 1]; ++i)
+         if (numTrue[occList[i]] == 1) ++result;
+      return result;
+   }
+
+   /**
+    *    Calculates the makecount of flipping a variable
+    *    @param   var   the variable that would be flipped
+    *    @return the number of clauses that would become true
+    */
+   public int makeCount (int var) {
+      int result = 0;
+      int l = BitVector.get (var, assign) ? 2 * var + 1 : 2 * var;
+      for (int i = occStart[l]; i < occStart[l + 1]; ++i)
+         if (numTrue[occList[i]] == 0) ++result;
+      return result;
+   }
+
+   /**
+    *    @param   clause   the index of a clause in the formula
+    *    @return the number of literals of the clause made true by the current assignment
+    */
+   public int getNumTrue (int clause) {
+      return numTrue[clause];
+   }
+
+   /**
+    *    @param   clause   the index of a clause in the formula
+    *    @return true if the clause is satisfied by the current assignment
+    */
+   public boolean isSatisfied (int clause) {
+      return numTrue[clause] > 0;
+   }
+
+   /**
+    *    @return the pool of clauses falsified by the current assignment
+    */
+   public UnsatPool getUnsat () {
+      return this.unsat;
+   }
+
+   public Formula getFormula () {
+      return this.formula;
+   }
+
+   public long[] getAssign () {
+      return this.assign;
+   }
+
+   public long[] getClauses () {
+      return this.clauses;
+   }
+
+   public int getTrueCount () {
+      return this.trueCount;
+   }
+
+   public int getNumVars () {
+      return this.numVars;
+   }
+
+   public int getNumClauses () {
+      return this.numClauses;
+   }
+}
@@ -0,0 +1,147 @@
+/*
+ *    File: ClauseWeights.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import edu.rit.util.Random;
+import java.util.Arrays;
+
+/**
+ *    Dynamic clause weights for weighted local search
+ *
+ *    Every clause starts a walk with weight 1. When no candidate flip lowers the weight
+ *    of the falsified clauses, the walk is at a local minimum and the weights of the
+ *    falsified clauses are raised, so that the landscape around the minimum changes:
+ *
+ *       saps  scales them by ALPHA, and with probability P_SMOOTH pulls every weight
+ *             towards the mean by RHO (Hutter, Tompkins and Hoos)
+ *       paws  adds 1 to them, and after every MAX_INC increases takes 1 off every weight
+ *             above 1; a move that leaves the weighted cost unchanged is taken instead
+ *             with probability P_FLAT (Thornton, Pham, Bain and Ferreira)
+ *
+ *    Every weight change is passed on to the clause state, which keeps the weighted score
+ *    of every variable, so scoring a candidate is one array read. The scores are sums
+ *    updated one change at a time, so they carry rounding error, and a score within
+ *    tolerance() of 0 counts as 0. The total weight is kept as the weights change as well.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class ClauseWeights {
+   static final double ALPHA = 1.3;
+   static final double RHO = 0.8;
+   static final double P_SMOOTH = 0.05;
+   static final int MAX_INC = 10;
+   static final double P_FLAT = 0.15;
+   // the rounding error allowed in a score, relative to the largest weight
+   static final double EPSILON = 1e-9;
+
+   private final boolean paws;
+   private final double[] weight;
+   private double total;
+   private double maxWeight;
+   private long increases;
+   private long bumps;
+
+   /**
+    *    Creates the weights of one walker
+    *    @param   paws        true for PAWS, false for SAPS
+    *    @param   numClauses  the number of clauses in the formula
+    */
+   public ClauseWeights (boolean paws, int numClauses) {
+      this.paws = paws;
+      this.weight = new double[numClauses];
+      reset();
+   }
+
+   /**
+    *    Sets every weight back to 1
+    */
+   public void reset () {
+      Arrays.fill (weight, 1.0);
+      total = weight.length;
+      maxWeight = 1.0;
+      increases = 0;
+   }
+
+   /**
+    *    @return the weight of every clause, indexed by clause
+    */
+   public double[] getWeights () {
+      return this.weight;
+   }
+
+   /**
+    *    Decides whether a local minimum is left by a move that keeps the weighted cost
+    *    @param   prng  the pseudorandom number generator of the calling thread
+    *    @return true to take the flat move instead of raising the weights
+    */
+   public boolean takesFlatMove (Random prng) {
+      return paws && prng.nextDouble() < P_FLAT;
+   }
+
+   /**
+    *    Raises the weights of the falsified clauses at a local minimum
+    *    @param   state the clause state of the walk, whose scores follow the weights
+    *    @param   prng  the pseudorandom number generator of the calling thread
+    */
+   public void bump (ClauseState state, Random prng) {
+      ++bumps;
+      UnsatPool unsat = state.getUnsat();
+      int n = unsat.size();
+      if (paws) {
+         for (int i = 0; i < n; ++i) {
+            int c = unsat.get (i);
+            weight[c] += 1.0;
+            maxWeight = Math.max (maxWeight, weight[c]);
+            state.reweigh (c, 1.0);
+         }
+         total += n;
+         if (++increases % MAX_INC == 0) {
+            for (int c = 0; c < weight.length; ++c) {
+               if (weight[c] > 1.0) {
+                  weight[c] -= 1.0;
+                  total -= 1.0;
+                  state.reweigh (c, -1.0);
+               }
+            }
+         }
+      } else {
+         for (int i = 0; i < n; ++i) {
+            int c = unsat.get (i);
+            double delta = (ALPHA - 1.0) * weight[c];
+            total += delta;
+            weight[c] *= ALPHA;
+            maxWeight = Math.max (maxWeight, weight[c]);
+            state.reweigh (c, delta);
+         }
+         if (prng.nextDouble() < P_SMOOTH) {
+            double mean = (1.0 - RHO) * total / weight.length;
+            for (int c = 0; c < weight.length; ++c)
+               weight[c] = RHO * weight[c] + mean;
+            total = RHO * total + mean * weight.length;
+            maxWeight = RHO * maxWeight + mean;
+            // every weight changed
+            state.rescore();
+         }
+      }
+   }
+
+   /**
+    *    @return the largest rounding error expected in a score kept by the clause state
+    */
+   public double tolerance () {
+      return EPSILON * maxWeight;
+   }
+
+   /**
+    *    @return the number of local minima at which the weights were raised
+    */
+   public long getBumps () {
+      return this.bumps;
+   }
+}
@@ -0,0 +1,364 @@
+/*
+ *    File: CnfGenerator.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Writes benchmark instances in DIMACS format
+ *
+ * Clauses are streamed to the output file as they are generated, so formulas with
+ * millions of clauses never have to fit in memory.
+ *
+ * Random k-SAT: every clause has k distinct variables chosen uniformly at random,
+ * each negated with probability 1/2. The number of clauses is ratio * V; for 3-SAT the
+ * satisfiability phase transition, where instances are hardest, lies near ratio 4.26.
+ *
+ * Subset sum: the same encoding as the bundled *_subsetsum.dimacs files. Variable i
+ * selects item i. Each item is written as constant bits, gated by its selection variable,
+ * and the gated items are summed with a ripple-carry adder whose result is fixed to the
+ * target. Every gate is encoded by one clause per row of its truth table.
+ *
+ * Usage: java CnfGenerator ksat V ratio k seed outputFile
+ *        java CnfGenerator subsetsum target outputFile item...
+ *        V - number of variables
+ *        ratio - clauses per variable
+ *        k - literals per clause
+ *        seed - long seed for PRNG
+ *        target - the sum the selected items must add up to
+ *        item - the non-negative integers to choose from
+ *
+ * @author Connor Adsit
+ * @author Kevin Bradley
+ * @author Christian Heinrich
+ */
+public class CnfGenerator {
+   /**
+    * Main Function:
+    * @param   args  the kind of instance and its parameters
+    */
+   public static void main (String[] args) {
+      try {
+         if (args.length >= 6 && args[0].equals ("ksat")) {
+            int n = Integer.parseInt(args[1]);
+            double ratio = Double.parseDouble(args[2]);
+            int k = Integer.parseInt(args[3]);
+            long seed = Long.parseLong(args[4]);
+            if (n < 1 || ratio < 0 || k < 1 || k > n) throw new NumberFormatException();
+            writeKSat (n, ratio, k, seed, args[5]);
+         } else if (args.length >= 4 && args[0].equals ("subsetsum")) {
+            long target = Long.parseLong(args[1]);
+            long[] items = new long[args.length - 3];
+            for (int i = 0; i < items.length; ++i) {
+               items[i] = Long.parseLong(args[i + 3]);
+               if (items[i] < 0) throw new NumberFormatException();
+            }
+            if (target < 0) throw new NumberFormatException();
+            writeSubsetSum (target, items, args[2]);
+         } else {
+            usage();
+         }
+      } catch (NumberFormatException nfe) {
+         usage();
+      } catch (IOException e) {
+         e.printStackTrace();
+         System.err.println(e.getMessage());
+      }
+   }
+
+   /**
+    * Prints out a usage statement
+    */
+   private static void usage() {
+      System.err.println("Usage: java CnfGenerator ksat <V> <ratio> <k> <seed> <file>");
+      System.err.println("       java CnfGenerator subsetsum <target> <file> <item>...");
+      System.err.println("V - number of variables");
+      System.err.println("ratio - clauses per variable (about 4.26 for hard 3-SAT)");
+      System.err.println("k - literals per clause");
+      System.err.println("seed - long seed for PRNG");
+      System.err.println("target - the sum the selected items must add up to");
+      System.err.println("item - non-negative integers to choose from");
+      System.err.println("file - output file of CNF equation");
+      System.exit(0);
+   }
+
+   /**
+    * Writes a uniform random k-SAT formula
+    * @param   n     the number of variables
+    * @param   ratio the number of clauses per variable
+    * @param   k     the number of distinct variables per clause
+    * @param   seed  the seed of the generator
+    * @param   file  the path of the output file
+    */
+   static void writeKSat (int n, double ratio, int k, long seed, String file) throws IOException {
+      long m = Math.round (ratio * n);
+      SplittableRandom rnd = new SplittableRandom (seed);
+      DimacsWriter out = new DimacsWriter (new FileOutputStream (file));
+      out.comment (String.format ("A random %d-SAT instance with clause/variable ratio %s, seed %d",
+                                  k, ratio, seed));
+      out.header (n, m);
+      int[] clause = new int[k];
+      for (long c = 0; c < m; ++c) {
+         for (int j = 0; j < k; ++j) {
+            int v;
+            boolean repeat;
+            do {
+               v = 1 + rnd.nextInt (n);
+               repeat = false;
+               for (int i = 0; i < j; ++i)
+                  if (clause[i] == v) repeat = true;
+            } while (repeat);
+            clause[j] = v;
+         }
+         for (int j = 0; j < k; ++j)
+            out.literal (rnd.nextBoolean() ? clause[j] : -clause[j]);
+         out.end();
+      }
+      out.close();
+   }
+
+   /**
+    * Writes a subset sum instance
+    * @param   target   the sum the selected items must add up to
+    * @param   items    the integers to choose from
+    * @param   file     the path of the output file
+    */
+   static void writeSubsetSum (long target, long[] items, String file) throws IOException {
+      // count the clauses first, so the header can be written before them
+      SubsetSum counter = new SubsetSum (target, items, null);
+      counter.emit();
+
+      DimacsWriter out = new DimacsWriter (new FileOutputStream (file));
+      out.comment ("A 3SAT instance whose satisfying assignment encodes the subset of " +
+                   Arrays.toString (items) + " that add up to " + target);
+      out.header (counter.numVars, counter.numClauses);
+      new SubsetSum (target, items, out).emit();
+      out.close();
+   }
+
+   /**
+    * Emits the subset sum encoding, or only counts its variables and clauses
+    */
+   private static class SubsetSum {
+      final long target;
+      final long[] items;
+      final DimacsWriter out;
+      int numVars;
+      long numClauses;
+
+      /**
+       * @param   out   the writer of the clauses, or null to only count them
+       */
+      SubsetSum (long target, long[] items, DimacsWriter out) {
+         this.target = target;
+         this.items = items;
+         this.out = out;
+      }
+
+      /**
+       * @return the number of bits needed to write x
+       */
+      static int bits (long x) {
+         return 64 - Long.numberOfLeadingZeros (x);
+      }
+
+      /**
+       * Emits every clause of the encoding
+       */
+      void emit () throws IOException {
+         int n = items.length;
+         long total = 0;
+         for (long x : items) total += x;
+         int W = Math.max (1, Math.max (bits (total), bits (target)));
+
+         // width of each item, and of the running sum after adding it
+         int[] itemWidth = new int[n];
+         int[] sumWidth = new int[n];
+         for (int i = 0; i < n; ++i) {
+            if (i == 0) {
+               itemWidth[i] = Math.min (W, bits (items[i]) + 1);
+               sumWidth[i] = itemWidth[i];
+            } else {
+               itemWidth[i] = Math.max (sumWidth[i - 1], bits (items[i]));
+               sumWidth[i] = Math.min (W, itemWidth[i] + 1);
+            }
+         }
+
+         // selection variables come first, then the constant bits of every item,
+         // then the gated bits of every item
+         numVars = n;
+         int[][] constant = new int[n][];
+         for (int i = 0; i < n; ++i) constant[i] = newVars (itemWidth[i]);
+         int[][] gated = new int[n][];
+         for (int i = 0; i < n; ++i) gated[i] = newVars (itemWidth[i]);
+
+         for (int i = 0; i < n; ++i)
+            for (int b = 0; b < itemWidth[i]; ++b)
+               unit (((items[i] >>> b) & 1) == 1 ? constant[i][b] : -constant[i][b]);
+         for (int i = 0; i < n; ++i)
+            for (int b = 0; b < itemWidth[i]; ++b)
+               gate (gated[i][b], AND, i + 1, constant[i][b]);
+
+         // the first running sum is a copy of the first gated item
+         int[] sum = null;
+         if (n > 0) {
+            sum = newVars (sumWidth[0]);
+            for (int b = 0; b < sumWidth[0]; ++b) gate (sum[b], COPY, gated[0][b]);
+         }
+
+         // add every other gated item with a ripple-carry adder
+         for (int i = 1; i < n; ++i) {
+            int[] a = sum;
+            int[] g = gated[i];
+            int width = itemWidth[i];
+            int[] next = newVars (sumWidth[i]);
+            int[] carry = newVars (width);
+            for (int b = 0; b < width; ++b) {
+               boolean hasA = b < a.length;
+               if (b == 0 || !hasA) {
+                  // half adder, from the two inputs present at this bit
+                  int x = b == 0 ? a[0] : carry[b - 1];
+                  gate (next[b], XOR, x, g[b]);
+                  gate (carry[b], AND, x, g[b]);
+               } else {
+                  gate (next[b], XOR3, carry[b - 1], a[b], g[b]);
+                  gate (carry[b], MAJ, a[b], g[b], carry[b - 1]);
+               }
+            }
+            // the final carry becomes the top bit if the sum has room for it
+            if (sumWidth[i] > width) gate (next[width], COPY, carry[width - 1]);
+            sum = next;
+         }
+
+         // fix the final sum to the target
+         if (sum != null)
+            for (int b = 0; b < sum.length; ++b)
+               unit (((target >>> b) & 1) == 1 ? sum[b] : -sum[b]);
+         else if (target != 0)
+            emptyClause();
+      }
+
+      /**
+       * @return the numbers of count new variables
+       */
+      int[] newVars (int count) {
+         int[] vars = new int[count];
+         for (int j = 0; j < count; ++j) vars[j] = ++numVars;
+         return vars;
+      }
+
+      void unit (int lit) throws IOException {
+         ++numClauses;
+         if (out != null) {
+            out.literal (lit);
+            out.end();
+         }
+      }
+
+      /**
+       * Nothing can be selected, yet the target is not zero: an unsatisfiable formula
+       */
+      void emptyClause () throws IOException {
+         numVars = Math.max (numVars, 1);
+         unit (1);
+         unit (-1);
+      }
+
+      /**
+       * Encodes out = f(inputs) with one clause per row of the truth table, the first
+       * input varying fastest
+       * @param   outVar   the output variable
+       * @param   f        the gate's function over a row, inputs packed as bits
+       * @param   inputs   the input variables
+       */
+      void gate (int outVar, int f, int... inputs) throws IOException {
+         int m = inputs.length;
+         for (int row = 0; row < (1 << m); ++row) {
+            ++numClauses;
+            if (out == null) continue;
+            out.literal (((f >>> row) & 1) == 1 ? outVar : -outVar);
+            for (int j = 0; j < m; ++j)
+               out.literal (((row >>> j) & 1) == 1 ? -inputs[j] : inputs[j]);
+            out.end();
+         }
+      }
+   }
+
+   // truth tables, bit r holding the output for input row r
+   static final int COPY = 0x2;
+   static final int AND = 0x8;
+   static final int XOR = 0x6;
+   static final int XOR3 = 0x96;
+   static final int MAJ = 0xE8;
+
+   /**
+    * Writes DIMACS text through a byte buffer, formatting numbers without Strings
+    */
+   private static class DimacsWriter {
+      private final OutputStream out;
+      private final byte[] buf = new byte[1 << 16];
+      private final byte[] digits = new byte[20];
+      private int pos = 0;
+
+      DimacsWriter (OutputStream out) {
+         this.out = new BufferedOutputStream (out, 1 << 16);
+      }
+
+      void comment (String text) throws IOException {
+         raw ("c " + text + "\n");
+      }
+
+      void header (long numVars, long numClauses) throws IOException {
+         raw ("p cnf " + numVars + " " + numClauses + "\n");
+      }
+
+      private void raw (String s) throws IOException {
+         for (int i = 0; i < s.length(); ++i) put ((byte) s.charAt(i));
+      }
+
+      private void put (byte b) throws IOException {
+         if (pos == buf.length) {
+            out.write (buf, 0, pos);
+            pos = 0;
+         }
+         buf[pos++] = b;
+      }
+
+      /**
+       * Writes a literal followed by a space
+       */
+      void literal (int lit) throws IOException {
+         if (lit < 0) put ((byte) '-');
+         long x = Math.abs ((long) lit);
+         int d = 0;
+         do {
+            digits[d++] = (byte) ('0' + x % 10);
+            x /= 10;
+         } while (x != 0);
+         while (d > 0) put (digits[--d]);
+         put ((byte) ' ');
+      }
+
+      /**
+       * Ends the current clause
+       */
+      void end () throws IOException {
+         put ((byte) '0');
+         put ((byte) '\n');
+      }
+
+      void close () throws IOException {
+         out.write (buf, 0, pos);
+         out.close();
+      }
+   }
+}
@@ -0,0 +1,219 @@
+/*
+ *    File: DimacsParser.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ *    Reads a CNF formula in DIMACS format straight from a memory-mapped file
+ *
+ *    The file is scanned byte by byte and literals are written directly into a flat int
+ *    array, with the start of each clause recorded in an offset array, so no String is
+ *    created per line or per token. Any number of "c" comment lines is accepted anywhere
+ *    in the file, and clauses are delimited only by their terminating 0, so a clause may
+ *    span several lines and several clauses may share a line. A 0 with no literals before
+ *    it is an empty clause, which makes the formula unsatisfiable, and is kept as such.
+ *    A "%" line ends the formula.
+ *
+ *    Files larger than 2 GB are mapped one window at a time.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class DimacsParser {
+   private static final long WINDOW = 1L << 30;
+
+   private final FileChannel channel;
+   private final long fileSize;
+   private MappedByteBuffer buf;
+   private long bufStart;
+
+   private int numVars;
+   private int numClauses;
+   private int[] literals;
+   private int[] offsets;
+   private int numLiterals;
+
+   /**
+    *    Parses a .dimacs file
+    *    @param   file  the path to the .dimacs file
+    *    @throws  java.io.FileNotFoundException if the file does not exist
+    *    @throws  IOException if the file is not a well formed CNF formula
+    */
+   public DimacsParser (String file) throws IOException {
+      try (FileInputStream in = new FileInputStream (file)) {
+         this.channel = in.getChannel();
+         this.fileSize = channel.size();
+         this.bufStart = 0L;
+         map();
+         parse();
+      }
+   }
+
+   /**
+    *    Maps the window of the file starting at bufStart
+    */
+   private void map () throws IOException {
+      long len = Math.min (WINDOW, fileSize - bufStart);
+      buf = channel.map (FileChannel.MapMode.READ_ONLY, bufStart, len);
+   }
+
+   /**
+    *    @return the next byte of the file, or -1 at the end of the file
+    */
+   private int next () throws IOException {
+      if (!buf.hasRemaining()) {
+         bufStart += buf.capacity();
+         if (bufStart >= fileSize) return -1;
+         map();
+      }
+      return buf.get();
+   }
+
+   /**
+    *    Skips the rest of the current line
+    *    @return the first byte of the next line, or -1 at the end of the file
+    */
+   private int skipLine () throws IOException {
+      int b;
+      do {
+         b = next();
+      } while (b != '\n' && b != -1);
+      return b == -1 ? -1 : next();
+   }
+
+   /**
+    *    @return true if b is whitespace
+    */
+   private static boolean isSpace (int b) {
+      return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f';
+   }
+
+   /**
+    *    Reads the header and every clause of the formula
+    */
+   private void parse () throws IOException {
+      int b = next();
+
+      // skip comments up to the problem line
+      while (true) {
+         while (b != -1 && isSpace (b)) b = next();
+         if (b == 'c') b = skipLine();
+         else break;
+      }
+      if (b != 'p') throw new IOException ("Malformed DIMACS: missing \"p cnf\" problem line");
+      b = next();
+      while (b == ' ' || b == '\t') b = next();
+      if (b != 'c' || next() != 'n' || next() != 'f')
+         throw new IOException ("Malformed DIMACS: only the cnf format is supported");
+
+      // read the variable and clause counts
+      long[] value = new long[1];
+      b = readNumber (next(), value);
+      numVars = (int) value[0];
+      b = readNumber (b, value);
+      numClauses = (int) value[0];
+      if (numVars < 0 || numClauses < 0)
+         throw new IOException ("Malformed DIMACS: negative counts in problem line");
+
+      offsets = new int[numClauses + 1];
+      literals = new int[Math.max (16, 3 * numClauses)];
+      numLiterals = 0;
+      int clause = 0;
+      boolean open = false;
+
+      // read literals until the end of the file
+      while (true) {
+         while (b != -1 && isSpace (b)) b = next();
+         if (b == -1 || b == '%') break;
+         if (b == 'c') {
+            b = skipLine();
+            continue;
+         }
+         b = readNumber (b, value);
+         int lit = (int) value[0];
+         if (clause == numClauses)
+            throw new IOException ("Malformed DIMACS: more than " + numClauses + " clauses");
+         if (lit == 0) {
+            offsets[++clause] = numLiterals;
+            open = false;
+         } else {
+            if (Math.abs (lit) > numVars)
+               throw new IOException ("Malformed DIMACS: variable " + Math.abs (lit) +
+                                      " exceeds declared count " + numVars);
+            if (numLiterals == literals.length) {
+               int[] grown = new int[literals.length * 2];
+               System.arraycopy (literals, 0, grown, 0, numLiterals);
+               literals = grown;
+            }
+            literals[numLiterals++] = lit;
+            open = true;
+         }
+      }
+
+      // a final clause may omit its terminating 0
+      if (open) offsets[++clause] = numLiterals;
+      if (clause != numClauses)
+         throw new IOException ("Malformed DIMACS: expected " + numClauses + " clauses, found " + clause);
+   }
+
+   /**
+    *    Reads a signed decimal number
+    *    @param   b     the first byte of the number, possibly preceded by blanks
+    *    @param   value holds the number read
+    *    @return the first byte after the number
+    */
+   private int readNumber (int b, long[] value) throws IOException {
+      while (b != -1 && isSpace (b)) b = next();
+      boolean negative = false;
+      if (b == '-') {
+         negative = true;
+         b = next();
+      }
+      if (b < '0' || b > '9')
+         throw new IOException ("Malformed DIMACS: unexpected character '" + (char) b + "'");
+      long n = 0;
+      while (b >= '0' && b <= '9') {
+         n = n * 10 + (b - '0');
+         if (n > Integer.MAX_VALUE) throw new IOException ("Malformed DIMACS: number out of range");
+         b = next();
+      }
+      value[0] = negative ? -n : n;
+      return b;
+   }
+
+   public int getNumVars () {
+      return this.numVars;
+   }
+
+   public int getNumClauses () {
+      return this.numClauses;
+   }
+
+   /**
+    *    @return the literals of every clause, back to back
+    */
+   public int[] getLiterals () {
+      if (literals.length != numLiterals) {
+         int[] trimmed = new int[numLiterals];
+         System.arraycopy (literals, 0, trimmed, 0, numLiterals);
+         literals = trimmed;
+      }
+      return this.literals;
+   }
+
+   /**
+    *    @return the index of the first literal of each clause, followed by the total literal count
+    */
+   public int[] getOffsets () {
+      return this.offsets;
+   }
+}
@@ -0,0 +1,126 @@
+/*
+ *    File: ElitePool.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import edu.rit.util.Random;
+
+/**
+ *    Bounded pool of the best assignments found so far, shared by all searching threads
+ *    while they run
+ *
+ *    A thread publishes its best assignment whenever it improves. The assignment replaces
+ *    the worst member of the pool, as ranked by Assignment.compareTo, if it is better
+ *    than that member and differs from every member. Each slot is replaced with a
+ *    compare-and-set, so publishing never blocks; a thread that loses a race looks for
+ *    the worst member again. Members are copies, never changed once published.
+ *
+ *    A share of the walks starts from a random member with a few random variables
+ *    flipped, instead of from a random assignment, so good partial assignments found
+ *    by one thread are explored further by the others.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class ElitePool {
+   // the default number of members
+   static final int SIZE = 8;
+   // the fraction of the variables flipped when a walk starts from a member
+   static final double PERTURB = 0.1;
+
+   private final AtomicReferenceArray<Assignment> slots;
+   private final double share;
+   private final AtomicLong published = new AtomicLong();
+   private final AtomicLong seeded = new AtomicLong();
+
+   /**
+    *    Creates an empty pool
+    *    @param   size  the number of members
+    *    @param   share the fraction of the walks to start from a member
+    */
+   public ElitePool (int size, double share) {
+      this.slots = new AtomicReferenceArray<Assignment> (size);
+      this.share = share;
+   }
+
+   /**
+    *    Offers an assignment to the pool
+    *    @param   a  an assignment that is never changed afterwards
+    *    @return true if the assignment became a member
+    */
+   public boolean publish (Assignment a) {
+      while (true) {
+         int worst = -1;
+         Assignment w = null;
+         for (int i = 0; i < slots.length(); ++i) {
+            Assignment s = slots.get (i);
+            if (s == null) {
+               worst = i;
+               w = null;
+               break;
+            }
+            if (Arrays.equals (s.getAssign(), a.getAssign())) return false;
+            if (w == null || s.compareTo (w) < 0) {
+               worst = i;
+               w = s;
+            }
+         }
+         if (w != null && a.compareTo (w) <= 0) return false;
+         if (slots.compareAndSet (worst, w, a)) {
+            published.incrementAndGet();
+            return true;
+         }
+      }
+   }
+
+   /**
+    *    Chooses the start of a walk
+    *    @param   prng     the pseudorandom number generator of the calling thread
+    *    @param   numVars  the number of variables of the formula
+    *    @param   into     receives a perturbed member, as a bit vector indexed by variable
+    *    @return true if the walk is to start from into, false to start from random
+    */
+   public boolean seed (Random prng, int numVars, long[] into) {
+      if (share == 0.0 || prng.nextDouble() >= share) return false;
+      int first = prng.nextInt (slots.length());
+      Assignment member = null;
+      for (int i = 0; i < slots.length() && member == null; ++i)
+         member = slots.get ((first + i) % slots.length());
+      if (member == null) return false;
+
+      System.arraycopy (member.getAssign(), 0, into, 0, into.length);
+      int flips = numVars == 0 ? 0 : Math.max (1, (int) Math.round (PERTURB * numVars));
+      for (int k = 0; k < flips; ++k)
+         BitVector.flip (1 + prng.nextInt (numVars), into);
+      seeded.incrementAndGet();
+      return true;
+   }
+
+   /**
+    *    @return the number of true clauses of the best member, or -1 if the pool is empty
+    */
+   public int getBestTrueCount () {
+      int result = -1;
+      for (int i = 0; i < slots.length(); ++i) {
+         Assignment s = slots.get (i);
+         if (s != null) result = Math.max (result, s.getTrueCount());
+      }
+      return result;
+   }
+
+   /**
+    *    @return the pool's settings and how much it was used
+    */
+   public String toString () {
+      return String.format ("Elite: size=%d share=%.2f published=%d seeded=%d best=%d",
+                            slots.length(), share, published.get(), seeded.get(),
+                            getBestTrueCount());
+   }
+}
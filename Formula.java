@@ -0,0 +1,273 @@
+/*
+ *    File: Formula.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ *    Compact, immutable clause database of a CNF formula
+ *
+ *    All literals are stored back to back in one int array, and clause c occupies
+ *    literals[clauseStart[c]] up to, but not including, literals[clauseStart[c + 1]].
+ *    The occurrence lists use the same layout: the clauses containing literal code
+ *    l = 2 * var + (negated ? 1 : 0) are occList[occStart[l]] up to occList[occStart[l + 1]].
+ *    Repeated literals within a clause are listed once, and tautological clauses, which
+ *    are true under every assignment, are left out of the occurrence lists.
+ *
+ *    A formula is shared read-only between all threads searching it.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class Formula {
+   private final int numVars;
+   private final int numClauses;
+   private final int[] literals;
+   private final int[] clauseStart;
+   private final int[] occStart;
+   private final int[] occList;
+   private final boolean[] tautology;
+
+   /**
+    *    Builds a formula and its occurrence lists from flattened clauses
+    *    @param   numVars     the number of variables in the formula
+    *    @param   numClauses  the number of clauses in the formula
+    *    @param   literals    the literals of every clause, back to back
+    *    @param   clauseStart the index of the first literal of each clause,
+    *                         followed by the total literal count
+    */
+   public Formula (int numVars, int numClauses, int[] literals, int[] clauseStart) {
+      this.numVars = numVars;
+      this.numClauses = numClauses;
+      this.literals = literals;
+      this.clauseStart = clauseStart;
+      this.tautology = new boolean[numClauses];
+      this.occStart = new int[2 * (numVars + 1) + 1];
+
+      // count the distinct occurrences of every literal, marking tautologies
+      int[] seen = new int[numVars + 1];
+      count (literals, clauseStart, 0, numClauses, tautology, seen, occStart);
+      for (int l = 1; l < occStart.length; ++l)
+         occStart[l] += occStart[l - 1];
+
+      // fill the lists
+      this.occList = new int[occStart[occStart.length - 1]];
+      int[] fill = new int[occStart.length];
+      System.arraycopy (occStart, 0, fill, 0, occStart.length);
+      fill (literals, clauseStart, 0, numClauses, tautology, seen, occList, fill);
+   }
+
+   /**
+    *    Counts the distinct occurrences of every literal in a range of clauses, marking
+    *    tautologies, whose literals are not counted
+    *    @param   from     the first clause of the range
+    *    @param   to       the clause after the last clause of the range
+    *    @param   seen     zeroes, one per variable, left as zeroes
+    *    @param   counts   receives the occurrences of literal code l in counts[l + 1]
+    */
+   private static void count (int[] literals, int[] clauseStart, int from, int to,
+                              boolean[] tautology, int[] seen, int[] counts) {
+      for (int c = from; c < to; ++c) {
+         int end = clauseStart[c + 1];
+         for (int i = clauseStart[c]; i < end; ++i) {
+            int v = literals[i];
+            int var = Math.abs(v);
+            int sign = v > 0 ? 1 : 2;
+            if (seen[var] == 0) {
+               seen[var] = sign;
+               ++counts[code (v) + 1];
+            } else if (seen[var] != sign) {
+               tautology[c] = true;
+            }
+         }
+         for (int i = clauseStart[c]; i < end; ++i) {
+            int var = Math.abs(literals[i]);
+            // a tautology is always true, so it never needs to be revisited
+            if (tautology[c] && seen[var] != 0)
+               --counts[2 * var + seen[var]];
+            seen[var] = 0;
+         }
+      }
+   }
+
+   /**
+    *    Lists a range of clauses in the occurrence lists
+    *    @param   from     the first clause of the range
+    *    @param   to       the clause after the last clause of the range
+    *    @param   seen     zeroes, one per variable, left as zeroes
+    *    @param   fill     the next free slot of each literal code's list, advanced
+    */
+   private static void fill (int[] literals, int[] clauseStart, int from, int to,
+                             boolean[] tautology, int[] seen, int[] occList, int[] fill) {
+      for (int c = from; c < to; ++c) {
+         if (tautology[c]) continue;
+         int end = clauseStart[c + 1];
+         for (int i = clauseStart[c]; i < end; ++i) {
+            int v = literals[i];
+            int var = Math.abs(v);
+            if (seen[var] == 0) {
+               seen[var] = 1;
+               occList[fill[code (v)]++] = c;
+            }
+         }
+         for (int i = clauseStart[c]; i < end; ++i)
+            seen[Math.abs(literals[i])] = 0;
+      }
+   }
+
+   /**
+    *    Builds this formula with clauses appended, the old clauses keeping their indices
+    *
+    *    Only the appended clauses are examined; the old literals and occurrence lists are
+    *    copied over a list at a time, each list followed by the new clauses' occurrences.
+    *
+    *    @param   numVars     the number of variables, at least this formula's
+    *    @param   count       the number of clauses appended
+    *    @param   added       the literals of the appended clauses, back to back
+    *    @param   addedStart  the index in added of each appended clause's first literal,
+    *                         followed by the total literal count
+    *    @return the longer formula; this formula is left unchanged
+    */
+   Formula append (int numVars, int count, int[] added, int[] addedStart) {
+      int n = numClauses + count;
+      int[] lits = Arrays.copyOf (literals, literals.length + addedStart[count]);
+      System.arraycopy (added, 0, lits, literals.length, addedStart[count]);
+      int[] start = Arrays.copyOf (clauseStart, n + 1);
+      for (int k = 1; k <= count; ++k) start[numClauses + k] = literals.length + addedStart[k];
+      boolean[] taut = Arrays.copyOf (tautology, n);
+
+      int[] seen = new int[numVars + 1];
+      int[] counts = new int[2 * (numVars + 1) + 1];
+      count (lits, start, numClauses, n, taut, seen, counts);
+
+      // every list keeps its old occurrences, followed by room for the new ones
+      int oldCodes = occStart.length - 1;
+      int[] os = new int[counts.length];
+      int[] next = new int[counts.length];
+      for (int l = 0; l + 1 < counts.length; ++l) {
+         int old = l < oldCodes ? occStart[l + 1] - occStart[l] : 0;
+         next[l] = os[l] + old;
+         os[l + 1] = next[l] + counts[l + 1];
+      }
+      int[] ol = new int[os[counts.length - 1]];
+      for (int l = 0; l < oldCodes; ++l)
+         System.arraycopy (occList, occStart[l], ol, os[l], occStart[l + 1] - occStart[l]);
+      fill (lits, start, numClauses, n, taut, seen, ol, next);
+      return new Formula (numVars, n, lits, start, os, ol, taut);
+   }
+
+   /**
+    *    Wraps a formula whose occurrence lists were built earlier, e.g. by a cached run
+    *    @param   numVars     the number of variables in the formula
+    *    @param   numClauses  the number of clauses in the formula
+    *    @param   literals    the literals of every clause, back to back
+    *    @param   clauseStart the index of the first literal of each clause,
+    *                         followed by the total literal count
+    *    @param   occStart    the index of the first occurrence of each literal code,
+    *                         followed by the total occurrence count
+    *    @param   occList     the clauses containing each literal, back to back
+    *    @param   tautology   which clauses contain a literal and its negation
+    */
+   Formula (int numVars, int numClauses, int[] literals, int[] clauseStart, int[] occStart,
+            int[] occList, boolean[] tautology) {
+      this.numVars = numVars;
+      this.numClauses = numClauses;
+      this.literals = literals;
+      this.clauseStart = clauseStart;
+      this.occStart = occStart;
+      this.occList = occList;
+      this.tautology = tautology;
+   }
+
+   /**
+    *    Reads a formula from a .dimacs file
+    *    @param   file  the path to the .dimacs file
+    *    @return the formula in the file
+    */
+   public static Formula load (String file) throws IOException {
+      DimacsParser parser = new DimacsParser (file);
+      return new Formula (parser.getNumVars(), parser.getNumClauses(),
+                          parser.getLiterals(), parser.getOffsets());
+   }
+
+   /**
+    *    @param   lit   a literal, as a signed variable number
+    *    @return the index of the literal's occurrence list
+    */
+   public static int code (int lit) {
+      return lit > 0 ? 2 * lit : -2 * lit + 1;
+   }
+
+   public int getNumVars () {
+      return this.numVars;
+   }
+
+   public int getNumClauses () {
+      return this.numClauses;
+   }
+
+   public int getNumLiterals () {
+      return this.literals.length;
+   }
+
+   public int[] getLiterals () {
+      return this.literals;
+   }
+
+   public int[] getClauseStart () {
+      return this.clauseStart;
+   }
+
+   public int[] getOccStart () {
+      return this.occStart;
+   }
+
+   public int[] getOccList () {
+      return this.occList;
+   }
+
+   /**
+    *    @param   clause   the index of a clause in the formula
+    *    @return true if the clause contains a literal and its negation
+    */
+   public boolean isTautology (int clause) {
+      return tautology[clause];
+   }
+
+   /**
+    *    @return the number of bytes held by the clause database
+    */
+   public long memoryBytes () {
+      return 4L * (literals.length + clauseStart.length + occStart.length + occList.length)
+             + tautology.length;
+   }
+
+   /**
+    *    Returns a pretty printed clause
+    *    @param   clause   the index of a clause in the formula
+    *    @return a readable string version of the clause
+    */
+   public String clauseString (int clause) {
+      StringBuilder accum = new StringBuilder();
+      for (int i = clauseStart[clause]; i < clauseStart[clause + 1]; ++i) {
+         if (i > clauseStart[clause]) accum.append (" \\/ ");
+         accum.append (literals[i]);
+      }
+      return accum.toString();
+   }
+
+   /**
+    *    @return a summary of the size of the formula and the memory it takes per clause
+    */
+   public String toString () {
+      return String.format ("%d variables, %d clauses, %d literals, %.1f bytes/clause",
+                            numVars, numClauses, literals.length,
+                            numClauses == 0 ? 0.0 : (double) memoryBytes() / numClauses);
+   }
+}
@@ -0,0 +1,223 @@
+/*
+ *    File: FormulaCache.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ *    Keeps a binary copy of a parsed formula next to its DIMACS file, so later runs
+ *    load the clause database without parsing it or building its occurrence lists
+ *
+ *    The cache of F is F.bcnf. It starts with a header:
+ *
+ *       int    MAGIC, VERSION
+ *       long   size of the source file in bytes
+ *       byte[] SHA-256 hash of the source file's contents
+ *       int    numVars, numClauses, numLiterals, number of occurrences
+ *
+ *    followed by the literals, the clause offsets, the occurrence offsets and the
+ *    occurrence lists as big-endian ints, and one byte per clause marking tautologies.
+ *    The cache is memory-mapped and copied into the formula's arrays in bulk.
+ *
+ *    A cache whose header does not match the source file, or that has the wrong size or
+ *    version, is stale and is rewritten. The cache is written to a temporary file and
+ *    renamed into place, so concurrent runs never read a partial cache, and a cache that
+ *    cannot be written (e.g. in a read-only directory) is skipped.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class FormulaCache {
+   static final int MAGIC = 0x57534346;   // "WSCF"
+   static final int VERSION = 2;
+   static final String SUFFIX = ".bcnf";
+   static final int HEADER = 4 + 4 + 8 + 32 + 4 * 4;
+
+   // the file is mapped and written at most this many bytes at a time
+   private static final long WINDOW = 1L << 30;
+
+   /**
+    *    Reads a formula from its cache, or parses it and writes the cache
+    *    @param   file  the path to the .dimacs file
+    *    @return the formula in the file
+    */
+   public static Formula load (String file) throws IOException {
+      File source = new File (file);
+      File cache = new File (file + SUFFIX);
+      long size = source.length();
+      byte[] hash = hash (source);
+
+      Formula formula = cache.isFile() ? read (cache, size, hash) : null;
+      if (formula != null) return formula;
+
+      formula = Formula.load (file);
+      try {
+         write (formula, cache, size, hash);
+      } catch (IOException e) {
+         System.err.println ("Warning: cannot write " + cache + ": " + e.getMessage());
+      }
+      return formula;
+   }
+
+   /**
+    *    Reads a cache
+    *    @param   cache the cache file
+    *    @param   size  the size of the source file
+    *    @param   hash  the hash of the source file
+    *    @return the cached formula, or null if the cache is stale or damaged
+    */
+   static Formula read (File cache, long size, byte[] hash) throws IOException {
+      try (FileInputStream in = new FileInputStream (cache)) {
+         FileChannel channel = in.getChannel();
+         long length = channel.size();
+         if (length < HEADER) return null;
+         ByteBuffer header = channel.map (FileChannel.MapMode.READ_ONLY, 0L, HEADER);
+         if (header.getInt() != MAGIC || header.getInt() != VERSION) return null;
+         if (header.getLong() != size) return null;
+         byte[] cached = new byte[hash.length];
+         header.get (cached);
+         if (!Arrays.equals (cached, hash)) return null;
+         int numVars = header.getInt();
+         int numClauses = header.getInt();
+         int numLiterals = header.getInt();
+         int numOcc = header.getInt();
+         int numCodes = 2 * (numVars + 1) + 1;
+         if (numVars < 0 || numClauses < 0 || numLiterals < 0 || numOcc < 0
+             || length != HEADER + 4L * ((long) numLiterals + numClauses + 1 + numCodes + numOcc)
+                          + numClauses)
+            return null;
+
+         long pos = HEADER;
+         int[] literals = new int[numLiterals];
+         pos = readInts (channel, pos, literals);
+         int[] clauseStart = new int[numClauses + 1];
+         pos = readInts (channel, pos, clauseStart);
+         int[] occStart = new int[numCodes];
+         pos = readInts (channel, pos, occStart);
+         int[] occList = new int[numOcc];
+         pos = readInts (channel, pos, occList);
+         boolean[] tautology = new boolean[numClauses];
+         for (int c = 0; c < numClauses; ) {
+            int n = (int) Math.min (WINDOW, numClauses - c);
+            MappedByteBuffer buf = channel.map (FileChannel.MapMode.READ_ONLY, pos, n);
+            for (int i = 0; i < n; ++i) tautology[c++] = buf.get() != 0;
+            pos += n;
+         }
+         return new Formula (numVars, numClauses, literals, clauseStart, occStart, occList,
+                             tautology);
+      }
+   }
+
+   /**
+    *    Copies ints from the file into an array, one mapped window at a time
+    *    @return the position after the last int
+    */
+   private static long readInts (FileChannel channel, long pos, int[] dst) throws IOException {
+      for (int i = 0; i < dst.length; ) {
+         int n = (int) Math.min (WINDOW / 4, dst.length - i);
+         IntBuffer ints = channel.map (FileChannel.MapMode.READ_ONLY, pos, 4L * n).asIntBuffer();
+         ints.get (dst, i, n);
+         i += n;
+         pos += 4L * n;
+      }
+      return pos;
+   }
+
+   /**
+    *    Writes a cache, replacing any previous one
+    *    @param   formula  the parsed formula
+    *    @param   cache    the cache file
+    *    @param   size     the size of the source file
+    *    @param   hash     the hash of the source file
+    */
+   static void write (Formula formula, File cache, long size, byte[] hash) throws IOException {
+      File dir = cache.getAbsoluteFile().getParentFile();
+      File tmp = File.createTempFile (cache.getName(), ".tmp", dir);
+      try {
+         try (RandomAccessFile out = new RandomAccessFile (tmp, "rw")) {
+            FileChannel channel = out.getChannel();
+            ByteBuffer header = ByteBuffer.allocate (HEADER);
+            header.putInt (MAGIC) .putInt (VERSION) .putLong (size) .put (hash);
+            header.putInt (formula.getNumVars()) .putInt (formula.getNumClauses())
+                  .putInt (formula.getNumLiterals()) .putInt (formula.getOccList().length);
+            header.flip();
+            while (header.hasRemaining()) channel.write (header);
+
+            ByteBuffer buf = ByteBuffer.allocateDirect (1 << 20);
+            writeInts (channel, buf, formula.getLiterals());
+            writeInts (channel, buf, formula.getClauseStart());
+            writeInts (channel, buf, formula.getOccStart());
+            writeInts (channel, buf, formula.getOccList());
+            for (int c = 0; c < formula.getNumClauses(); ++c) {
+               if (!buf.hasRemaining()) drain (channel, buf);
+               buf.put ((byte) (formula.isTautology (c) ? 1 : 0));
+            }
+            drain (channel, buf);
+         }
+         Files.move (tmp.toPath(), cache.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                     StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+         tmp.delete();
+      }
+   }
+
+   /**
+    *    Writes ints through a buffer
+    */
+   private static void writeInts (FileChannel channel, ByteBuffer buf, int[] src)
+         throws IOException {
+      for (int i = 0; i < src.length; ) {
+         if (buf.remaining() < 4) drain (channel, buf);
+         int n = Math.min (buf.remaining() / 4, src.length - i);
+         buf.asIntBuffer().put (src, i, n);
+         buf.position (buf.position() + 4 * n);
+         i += n;
+      }
+   }
+
+   /**
+    *    Writes out and empties a buffer
+    */
+   private static void drain (FileChannel channel, ByteBuffer buf) throws IOException {
+      buf.flip();
+      while (buf.hasRemaining()) channel.write (buf);
+      buf.clear();
+   }
+
+   /**
+    *    @return the SHA-256 hash of a file's contents
+    */
+   static byte[] hash (File file) throws IOException {
+      MessageDigest digest;
+      try {
+         digest = MessageDigest.getInstance ("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+         throw new IOException (e);
+      }
+      try (FileInputStream in = new FileInputStream (file)) {
+         FileChannel channel = in.getChannel();
+         long size = channel.size();
+         for (long pos = 0L; pos < size; pos += WINDOW)
+            digest.update (channel.map (FileChannel.MapMode.READ_ONLY, pos,
+                                        Math.min (WINDOW, size - pos)));
+      }
+      return digest.digest();
+   }
+}
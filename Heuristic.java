@@ -0,0 +1,43 @@
+/*
+ *    File: Heuristic.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import edu.rit.util.Random;
+
+/**
+ *    Chooses the variable of a falsified clause that a candidate flip changes
+ *
+ *    The walker calls pick() once per candidate, with a clause drawn uniformly from the
+ *    unsatisfied pool, and tells the heuristic about every flip it accepts. A heuristic
+ *    may keep per-variable state, so each walker owns its own.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public interface Heuristic {
+   /**
+    *    Chooses a variable to flip
+    *    @param   state    the clause state of the calling walker
+    *    @param   clause   the index of a clause falsified by the current assignment
+    *    @param   prng     the pseudorandom number generator of the calling thread
+    *    @return the variable to flip
+    */
+   public int pick (ClauseState state, int clause, Random prng);
+
+   /**
+    *    Observes a flip applied to the current assignment
+    *    @param   var   the variable flipped
+    *    @param   flips the number of flips made so far, including this one
+    */
+   public void flipped (int var, long flips);
+
+   /**
+    *    Forgets the history of the previous walk
+    */
+   public void restart ();
+}
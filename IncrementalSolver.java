@@ -0,0 +1,261 @@
+/*
+ *    File: IncrementalSolver.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.util.Arrays;
+import edu.rit.util.Random;
+
+/**
+ *    Keeps a formula and its best truth assignment in memory between searches, so clauses
+ *    can be added or retracted and the search resumed where it left off
+ *
+ *    Clauses are appended to a growable clause database, optionally under a tag; all
+ *    clauses with a tag can later be retracted together, and tag 0 marks permanent
+ *    clauses. Clauses may name variables beyond the current count, which then grows.
+ *
+ *    solve() first walks from the best assignment of the previous search rather than
+ *    from a random one, so when a few new clauses are violated only those need repairing.
+ *    Added clauses are appended to the Formula with Formula.append, and only they are
+ *    evaluated against the best assignment; when the best assignment still satisfies
+ *    every clause, solve() returns without building a walker. A retraction instead
+ *    rebuilds the formula from the live clauses and re-evaluates the best assignment,
+ *    which is linear in the size of the formula. Preprocessing is not applied, as it
+ *    would fix variables that later clauses or retractions may need free.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class IncrementalSolver {
+   private final long maxSteps;
+   private final SolverOptions options;
+   private final Random prng;
+
+   // the clause database, with every clause's tag and whether it is retracted
+   private int numVars;
+   private int numClauses;
+   private int numLiterals;
+   private int[] literals = new int[16];
+   private int[] clauseStart = new int[17];
+   private int[] tag = new int[16];
+   private boolean[] retracted = new boolean[16];
+   private int numLive;
+
+   // the searchable form of the live clauses: clauses from applied on are not in it yet,
+   // and after a retraction it is rebuilt
+   private int applied;
+   private boolean compact = true;
+   private Formula formula;
+   private Walker walker;
+
+   // the best assignment, and its evaluation, which is stale once a walk improves on it
+   private ClauseState state;
+   private boolean stale;
+   private Assignment best;
+   private long[] assign = new long[1];
+
+   /**
+    *    Creates a solver with no clauses
+    *    @param   numVars  the number of variables, which later clauses may raise
+    *    @param   maxSteps the number of candidate flips generated per step
+    *    @param   options  the search settings
+    *    @param   seed     the seed of the PRNG
+    */
+   public IncrementalSolver (int numVars, long maxSteps, SolverOptions options, long seed) {
+      this.numVars = numVars;
+      this.maxSteps = maxSteps;
+      this.options = options;
+      this.prng = new Random (seed);
+      this.assign = new long[BitVector.words (numVars + 1)];
+   }
+
+   /**
+    *    Creates a solver holding the clauses of a formula as permanent clauses
+    *    @param   formula  the initial formula
+    *    @param   maxSteps the number of candidate flips generated per step
+    *    @param   options  the search settings
+    *    @param   seed     the seed of the PRNG
+    */
+   public IncrementalSolver (Formula formula, long maxSteps, SolverOptions options, long seed) {
+      this (formula.getNumVars(), maxSteps, options, seed);
+      int[] lits = formula.getLiterals();
+      int[] start = formula.getClauseStart();
+      for (int c = 0; c < formula.getNumClauses(); ++c)
+         addClause (0, Arrays.copyOfRange (lits, start[c], start[c + 1]));
+   }
+
+   /**
+    *    Appends a clause
+    *    @param   tag      the tag to retract the clause by, or 0 to keep it for good
+    *    @param   clause   the literals of the clause, as signed variable numbers
+    *    @return the index of the clause
+    *    @throws  IllegalArgumentException if the clause is empty or contains a 0
+    */
+   public int addClause (int tag, int... clause) {
+      if (clause.length == 0) throw new IllegalArgumentException ("Empty clause");
+      if (numClauses == this.tag.length) {
+         int n = 2 * numClauses;
+         this.tag = Arrays.copyOf (this.tag, n);
+         this.retracted = Arrays.copyOf (this.retracted, n);
+         this.clauseStart = Arrays.copyOf (this.clauseStart, n + 1);
+      }
+      if (numLiterals + clause.length > literals.length)
+         literals = Arrays.copyOf (literals, Math.max (2 * literals.length, numLiterals + clause.length));
+      for (int v : clause) {
+         if (v == 0) throw new IllegalArgumentException ("0 is not a literal");
+         numVars = Math.max (numVars, Math.abs(v));
+         literals[numLiterals++] = v;
+      }
+      this.tag[numClauses] = tag;
+      clauseStart[++numClauses] = numLiterals;
+      ++numLive;
+      return numClauses - 1;
+   }
+
+   /**
+    *    Retracts every clause added under a tag
+    *    @param   tag   a tag other than 0
+    *    @return the number of clauses retracted
+    */
+   public int retract (int tag) {
+      if (tag == 0) throw new IllegalArgumentException ("Tag 0 clauses are permanent");
+      int result = 0;
+      for (int c = 0; c < numClauses; ++c) {
+         if (this.tag[c] == tag && !retracted[c]) {
+            retracted[c] = true;
+            ++result;
+         }
+      }
+      numLive -= result;
+      if (result > 0) compact = true;
+      return result;
+   }
+
+   /**
+    *    Searches for an assignment satisfying the live clauses, starting from the best
+    *    assignment so far; once a walk from it fails to improve it, the next walk starts
+    *    from a random assignment
+    *    @param   maxIter  the number of walks to perform
+    *    @return true if the best assignment satisfies every live clause
+    */
+   public boolean solve (long maxIter) {
+      update();
+      int target = formula.getNumClauses();
+      if (best.getTrueCount() == target) return true;
+      if (walker == null) walker = new Walker (formula, maxSteps, null, options);
+
+      // resume from the best while that pays off, then fall back to random starts
+      long[] before = best.getAssign();
+      boolean resume = true;
+      for (long n = 0; n < maxIter && best.getTrueCount() != target; ++n) {
+         int tc = best.getTrueCount();
+         walker.walkFrom (resume ? best.getAssign() : null, prng, best);
+         resume = best.getTrueCount() > tc;
+      }
+      // a new best replaces the arrays, leaving the state on the old one
+      if (best.getAssign() != before) stale = true;
+      assign = best.getAssign();
+      return best.getTrueCount() == target;
+   }
+
+   /**
+    *    Brings the formula and the evaluation of the best assignment up to date with the
+    *    clause database
+    */
+   private void update () {
+      if (compact) {
+         rebuild();
+         return;
+      }
+      if (applied == numClauses) return;
+
+      int count = numClauses - applied;
+      int first = clauseStart[applied];
+      int[] addedStart = new int[count + 1];
+      for (int k = 0; k <= count; ++k) addedStart[k] = clauseStart[applied + k] - first;
+      Formula longer = formula.append (numVars, count,
+                                       Arrays.copyOfRange (literals, first, numLiterals),
+                                       addedStart);
+      if (stale) state.reset (best.getAssign());
+      state.extend (longer);
+      formula = longer;
+      walker = null;
+      applied = numClauses;
+      evaluated();
+   }
+
+   /**
+    *    Rebuilds the formula from the live clauses and re-evaluates the best assignment
+    */
+   private void rebuild () {
+      int[] lits = new int[numLiterals];
+      int[] start = new int[numLive + 1];
+      int m = 0;
+      int size = 0;
+      for (int c = 0; c < numClauses; ++c) {
+         if (retracted[c]) continue;
+         start[m++] = size;
+         for (int i = clauseStart[c]; i < clauseStart[c + 1]; ++i) lits[size++] = literals[i];
+      }
+      start[m] = size;
+      // carry the assignment over, new variables starting false
+      long[] carried = Arrays.copyOf (assign, BitVector.words (numVars + 1));
+      if (formula != null) BitVector.clearFrom (formula.getNumVars() + 1, carried);
+
+      formula = new Formula (numVars, m, Arrays.copyOf (lits, size), start);
+      walker = null;
+      state = new ClauseState (formula);
+      state.reset (carried);
+      applied = numClauses;
+      compact = false;
+      evaluated();
+   }
+
+   /**
+    *    Makes the assignment held by the state the best one
+    */
+   private void evaluated () {
+      best = new Assignment (state.getAssign(), state.getClauses(), state.getTrueCount(),
+                             Integer.MAX_VALUE, 0);
+      assign = best.getAssign();
+      stale = false;
+   }
+
+   /**
+    *    @param   var   a variable
+    *    @return the value of the variable in the best assignment
+    */
+   public boolean valueOf (int var) {
+      return var < assign.length * 64 && BitVector.get (var, assign);
+   }
+
+   /**
+    *    @return the best assignment, as a bit vector indexed by variable
+    */
+   public long[] getAssign () {
+      return this.assign;
+   }
+
+   /**
+    *    @return the number of live clauses the best assignment leaves unsatisfied
+    */
+   public int getViolated () {
+      update();
+      return formula.getNumClauses() - best.getTrueCount();
+   }
+
+   public int getNumVars () {
+      return this.numVars;
+   }
+
+   /**
+    *    @return the number of live clauses
+    */
+   public int getNumClauses () {
+      return this.numLive;
+   }
+}
@@ -0,0 +1,252 @@
+/*
+ *    File: KernelBench.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import edu.rit.util.Random;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Microbenchmarks the solver kernels on the bundled instances and on synthetic
+ * random 3-SAT formulas
+ *
+ * Each kernel is warmed up, then timed over repeated batches. For every kernel and
+ * fixture the benchmark prints the time per operation, the operations per second
+ * and the bytes allocated per operation by the benchmarking thread.
+ *
+ * Kernels:
+ *    flip        ClauseState.flip() of a random variable
+ *    break/make  ClauseState.breakCount() plus makeCount() of a random variable
+ *    sliced      SlicedEvaluator.evaluate() of 64 random variables, reported per variable
+ *    evaluate    ClauseState.reset(), a full evaluation of every clause
+ *    walk        Walker.walk(), reported per candidate flip scored
+ *    compareTo   Assignment.compareTo() of two assignments
+ *    reduce      Assignment.reduce() of two assignments
+ *
+ * Usage: java KernelBench [seconds [dir]]
+ *        seconds - measurement time per kernel and fixture (default 1)
+ *        dir - directory holding the bundled .dimacs files (default .)
+ *
+ * @author Connor Adsit
+ * @author Kevin Bradley
+ * @author Christian Heinrich
+ */
+public class KernelBench {
+   // sink for kernel results, so the JIT cannot discard the work
+   static volatile long sink;
+
+   static final String[] BUNDLED = { "11_1_subsetsum.dimacs", "123_3_subsetsum.dimacs" };
+   static final int[] RANDOM_SIZES = { 1000, 10000, 100000 };
+   static final double RATIO = 4.26;
+
+   /**
+    * A kernel timed over a batch of operations
+    */
+   private static abstract class Kernel {
+      /**
+       * Runs the kernel
+       * @param   reps  the number of repetitions to perform
+       * @return the number of operations performed
+       */
+      abstract long run (int reps);
+   }
+
+   /**
+    * Main Function:
+    * @param   args  the measurement time and the directory of the bundled instances
+    */
+   public static void main (String[] args) throws Exception {
+      double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 1.0;
+      String dir = args.length > 1 ? args[1] : ".";
+
+      List<String> names = new ArrayList<String>();
+      List<Formula> fixtures = new ArrayList<Formula>();
+      for (String file : BUNDLED) {
+         names.add (file);
+         fixtures.add (Formula.load (new File (dir, file).getPath()));
+      }
+      for (int n : RANDOM_SIZES) {
+         names.add ("random3sat-" + n);
+         fixtures.add (randomFormula (n, (int) Math.round (RATIO * n), 3, n));
+      }
+
+      System.out.printf ("%-24s %-12s %14s %16s %12s\n",
+                         "fixture", "kernel", "ns/op", "ops/s", "bytes/op");
+      for (int f = 0; f < fixtures.size(); ++f) {
+         for (Object[] k : kernels (fixtures.get(f))) {
+            measure (names.get(f), (String) k[0], (Kernel) k[1], seconds);
+         }
+      }
+   }
+
+   /**
+    * Creates the kernels over a fixture
+    * @param   formula  the fixture
+    * @return pairs of kernel name and kernel
+    */
+   private static List<Object[]> kernels (final Formula formula) {
+      List<Object[]> result = new ArrayList<Object[]>();
+      final int numVars = Math.max (1, formula.getNumVars());
+      final SplittableRandom rnd = new SplittableRandom (42);
+
+      // a shared random start assignment and a stream of random variables
+      final long[] start = new long[BitVector.words (formula.getNumVars() + 1)];
+      for (int i = 0; i < start.length; ++i) start[i] = rnd.nextLong();
+      final int[] vars = new int[1 << 16];
+      for (int i = 0; i < vars.length; ++i) vars[i] = 1 + rnd.nextInt (numVars);
+      final ClauseState state = new ClauseState (formula);
+      state.reset (start);
+
+      if (formula.getNumVars() > 0) {
+         result.add (new Object[] { "flip", new Kernel() {
+            int i = 0;
+            long run (int reps) {
+               for (int r = 0; r < reps; ++r) state.flip (vars[i++ & (vars.length - 1)]);
+               sink += state.getTrueCount();
+               return reps;
+            }
+         }});
+         result.add (new Object[] { "break/make", new Kernel() {
+            int i = 0;
+            long run (int reps) {
+               long acc = 0;
+               for (int r = 0; r < reps; ++r) {
+                  int v = vars[i++ & (vars.length - 1)];
+                  acc += state.breakCount (v) + state.makeCount (v);
+               }
+               sink += acc;
+               return reps;
+            }
+         }});
+         result.add (new Object[] { "sliced", new Kernel() {
+            SlicedEvaluator sliced = new SlicedEvaluator (formula);
+            int[] batch = new int[SlicedEvaluator.WIDTH];
+            int[] breaks = new int[SlicedEvaluator.WIDTH];
+            int[] makes = new int[SlicedEvaluator.WIDTH];
+            int i = 0;
+            long run (int reps) {
+               long acc = 0;
+               for (int r = 0; r < reps; ++r) {
+                  for (int j = 0; j < batch.length; ++j) batch[j] = vars[i++ & (vars.length - 1)];
+                  sliced.evaluate (state, batch, batch.length, breaks, makes);
+                  acc += breaks[0] + makes[0];
+               }
+               sink += acc;
+               return (long) reps * batch.length;
+            }
+         }});
+      }
+      result.add (new Object[] { "evaluate", new Kernel() {
+         long run (int reps) {
+            for (int r = 0; r < reps; ++r) state.reset (start);
+            sink += state.getTrueCount();
+            return reps;
+         }
+      }});
+      result.add (new Object[] { "walk", new Kernel() {
+         Walker walker = new Walker (formula, 20);
+         Random prng = new Random (42);
+         long run (int reps) {
+            long before = walker.getCandidates();
+            Assignment best = new Assignment ();
+            for (int r = 0; r < reps; ++r) walker.walk (prng, best);
+            sink += best.getTrueCount();
+            return Math.max (1, walker.getCandidates() - before);
+         }
+      }});
+
+      // two assignments that tie on trueCount, so compareTo looks at every count
+      final Assignment a = new Assignment (start, state.getClauses(), 10, 3, 4);
+      final Assignment b = new Assignment (start, state.getClauses(), 10, 3, 5);
+      result.add (new Object[] { "compareTo", new Kernel() {
+         long run (int reps) {
+            long acc = 0;
+            for (int r = 0; r < reps; ++r) acc += ((r & 1) == 0 ? a.compareTo (b) : b.compareTo (a));
+            sink += acc;
+            return reps;
+         }
+      }});
+      result.add (new Object[] { "reduce", new Kernel() {
+         Assignment acc = new Assignment ();
+         long run (int reps) {
+            for (int r = 0; r < reps; ++r) acc.reduce ((r & 1) == 0 ? a : b);
+            sink += acc.getMakeCount();
+            return reps;
+         }
+      }});
+      return result;
+   }
+
+   /**
+    * Warms up and times one kernel, printing a line of results
+    * @param   fixture  the name of the fixture
+    * @param   name     the name of the kernel
+    * @param   kernel   the kernel to time
+    * @param   seconds  the measurement time
+    */
+   private static void measure (String fixture, String name, Kernel kernel, double seconds) {
+      com.sun.management.ThreadMXBean mx =
+         (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      long tid = Thread.currentThread().getId();
+
+      // find a batch size that takes about a millisecond, warming up as we go
+      int reps = 1;
+      long warmEnd = System.nanoTime() + (long) (seconds * 0.5e9);
+      while (System.nanoTime() < warmEnd) {
+         long t = System.nanoTime();
+         kernel.run (reps);
+         if (System.nanoTime() - t < 1000000L && reps < (1 << 24)) reps *= 2;
+      }
+
+      long ops = 0L;
+      long alloc = mx.getThreadAllocatedBytes (tid);
+      long t0 = System.nanoTime();
+      long end = t0 + (long) (seconds * 1e9);
+      long now;
+      do {
+         ops += kernel.run (reps);
+         now = System.nanoTime();
+      } while (now < end);
+      alloc = mx.getThreadAllocatedBytes (tid) - alloc;
+      double ns = (double) (now - t0) / ops;
+      System.out.printf ("%-24s %-12s %14.1f %16.0f %12.2f\n",
+                         fixture, name, ns, 1e9 / ns, (double) alloc / ops);
+   }
+
+   /**
+    * Generates a uniform random k-SAT formula in memory
+    * @param   n     the number of variables
+    * @param   m     the number of clauses
+    * @param   k     the number of distinct variables per clause
+    * @param   seed  the seed of the generator
+    * @return the formula
+    */
+   static Formula randomFormula (int n, int m, int k, long seed) {
+      SplittableRandom rnd = new SplittableRandom (seed);
+      int[] literals = new int[m * k];
+      int[] clauseStart = new int[m + 1];
+      for (int c = 0; c < m; ++c) {
+         clauseStart[c] = c * k;
+         for (int j = 0; j < k; ++j) {
+            int v;
+            boolean repeat;
+            do {
+               v = 1 + rnd.nextInt (n);
+               repeat = false;
+               for (int i = c * k; i < c * k + j; ++i)
+                  if (Math.abs (literals[i]) == v) repeat = true;
+            } while (repeat);
+            literals[c * k + j] = rnd.nextBoolean() ? v : -v;
+         }
+      }
+      clauseStart[m] = m * k;
+      return new Formula (n, m, literals, clauseStart);
+   }
+}
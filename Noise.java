@@ -0,0 +1,93 @@
+/*
+ *    File: Noise.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+/**
+ *    The probability that a step picks a random variable of the clause instead of a
+ *    greedy one
+ *
+ *    The noise is either fixed or adapted to the search as proposed by Hoos: when the
+ *    number of unsatisfied clauses has not improved for theta * m flips (m being the
+ *    number of clauses), the noise is raised by (1 - noise) * phi; whenever it improves,
+ *    the noise is lowered by noise * phi / 2. Each walker owns its own noise, and an
+ *    adaptive noise carries over from one walk to the next.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class Noise {
+   static final double THETA = 1.0 / 6.0;
+   static final double PHI = 0.2;
+
+   private final boolean adaptive;
+   private final long window;
+   private double level;
+   private long lastStep;
+   private int lastScore;
+   private long raises;
+   private long drops;
+
+   /**
+    *    Creates a noise level
+    *    @param   level       the initial probability of a random move
+    *    @param   adaptive    true to adapt the level to the search
+    *    @param   numClauses  the number of clauses in the formula
+    */
+   public Noise (double level, boolean adaptive, int numClauses) {
+      this.level = level;
+      this.adaptive = adaptive;
+      this.window = Math.max (1L, (long) (THETA * numClauses));
+      this.lastScore = Integer.MAX_VALUE;
+   }
+
+   /**
+    *    @return the current probability of a random move
+    */
+   public double level () {
+      return this.level;
+   }
+
+   /**
+    *    Observes the search after a flip
+    *    @param   flips the number of flips made so far
+    *    @param   unsat the number of clauses unsatisfied after the flip
+    */
+   public void update (long flips, int unsat) {
+      if (!adaptive) return;
+      if (unsat < lastScore) {
+         if (lastScore != Integer.MAX_VALUE) {
+            level -= level * PHI / 2.0;
+            ++drops;
+         }
+         lastScore = unsat;
+         lastStep = flips;
+      } else if (flips - lastStep > window) {
+         level += (1.0 - level) * PHI;
+         ++raises;
+         lastScore = unsat;
+         lastStep = flips;
+      }
+   }
+
+   /**
+    *    Forgets the score of the previous walk, keeping the level
+    *    @param   flips the number of flips made so far
+    */
+   public void restart (long flips) {
+      lastScore = Integer.MAX_VALUE;
+      lastStep = flips;
+   }
+
+   public long getRaises () {
+      return this.raises;
+   }
+
+   public long getDrops () {
+      return this.drops;
+   }
+}
@@ -0,0 +1,86 @@
+/*
+ *    File: NoveltyPlusHeuristic.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import edu.rit.util.Random;
+import java.util.Arrays;
+
+/**
+ *    The Novelty+ variable choice of McAllester, Selman, Kautz and Hoos
+ *
+ *    With a small walk probability a random variable of the clause is flipped. Otherwise
+ *    the variables are ranked by score, break minus make, with ties going to the variable
+ *    flipped least recently. The best variable is flipped unless it is also the most
+ *    recently flipped one of the clause, in which case the second best is flipped with
+ *    probability equal to the noise.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class NoveltyPlusHeuristic implements Heuristic {
+   // random walk probability suggested by Hoos
+   static final double WALK_PROB = 0.01;
+
+   private final int[] literals;
+   private final int[] clauseStart;
+   private final Noise noise;
+   private final double walkProb;
+   private final long[] age;
+
+   /**
+    *    Creates the heuristic for one walker
+    *    @param   formula  the formula searched
+    *    @param   noise    the noise level of the walker
+    *    @param   walkProb the probability of a random walk move
+    */
+   public NoveltyPlusHeuristic (Formula formula, Noise noise, double walkProb) {
+      this.literals = formula.getLiterals();
+      this.clauseStart = formula.getClauseStart();
+      this.noise = noise;
+      this.walkProb = walkProb;
+      this.age = new long[formula.getNumVars() + 1];
+   }
+
+   public int pick (ClauseState state, int clause, Random prng) {
+      int first = clauseStart[clause];
+      int end = clauseStart[clause + 1];
+      if (prng.nextDouble() < walkProb)
+         return Math.abs(literals[first + prng.nextInt(end - first)]);
+
+      // find the best and second best variables, and the youngest one
+      int best = 0, second = 0, youngest = 0;
+      int bestScore = Integer.MAX_VALUE, secondScore = Integer.MAX_VALUE;
+      for (int i = first; i < end; ++i) {
+         int v = Math.abs(literals[i]);
+         if (v == best || v == second) continue;
+         int score = state.breakCount (v) - state.makeCount (v);
+         if (youngest == 0 || age[v] > age[youngest]) youngest = v;
+         if (score < bestScore || (score == bestScore && age[v] < age[best])) {
+            second = best;
+            secondScore = bestScore;
+            best = v;
+            bestScore = score;
+         } else if (score < secondScore || (score == secondScore && age[v] < age[second])) {
+            second = v;
+            secondScore = score;
+         }
+      }
+
+      if (best == youngest && second != 0 && prng.nextDouble() < noise.level())
+         return second;
+      return best;
+   }
+
+   public void flipped (int var, long flips) {
+      age[var] = flips;
+   }
+
+   public void restart () {
+      Arrays.fill (age, 0L);
+   }
+}
@@ -0,0 +1,187 @@
+/*
+ *    File: Portfolio.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import edu.rit.util.Random;
+
+/**
+ *    Set of search configurations run side by side by the threads of one search, with
+ *    threads moved from the configurations that do poorly to those that do well
+ *
+ *    A configuration is a comma separated list of key=value settings applied on top of
+ *    the run's options, such as "noise=0.2" or "heuristic=probsat,restart=luby:10";
+ *    "steps=F" scales the steps per round by F, and "base" keeps the run's options.
+ *    Thread r starts on configuration r mod n.
+ *
+ *    Every REVIEW walks a thread reports its walks, flips, time and the number of
+ *    clauses left unsatisfied by the best of each walk. A configuration's score is that
+ *    number averaged over its walks, to which a solved walk adds 0, times its mean
+ *    nanoseconds per flip, lower being better: halving the clauses left unsatisfied is
+ *    worth as much as doubling the flip rate. Once both have MIN_WALKS walks,
+ *    a thread whose configuration scores more than MARGIN worse than the best one moves
+ *    to the best one. While a configuration with no thread has fewer than MIN_WALKS
+ *    walks, a reviewing thread moves to one of them with probability EXPLORE, so every
+ *    configuration is sampled even with fewer threads than configurations.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class Portfolio {
+   // noise levels, greedy and random choice, round lengths and restarts
+   static final String DEFAULT = "base;noise=0.2;noise=0.6;noise=adaptive;heuristic=novelty+;"
+                                 + "heuristic=probsat;steps=0.5,restart=luby:10;steps=2,noise=0.5";
+   static final int REVIEW = 32;
+   static final int MIN_WALKS = 64;
+   static final double MARGIN = 0.1;
+   static final double EXPLORE = 0.25;
+
+   private final String[] names;
+   private final SolverOptions[] options;
+   private final long[] steps;
+
+   private final long[] walks;
+   private final long[] flips;
+   private final long[] nanos;
+   private final long[] unsat;
+   private final long[] solved;
+   private final int[] threads;
+   private long moves;
+
+   /**
+    *    Creates a portfolio
+    *    @param   spec     "default", or configurations separated by semicolons
+    *    @param   base     the run's options
+    *    @param   maxSteps the run's steps per round
+    *    @throws  IllegalArgumentException if a configuration is not valid
+    */
+   public Portfolio (String spec, SolverOptions base, long maxSteps) {
+      this.names = (spec.equals ("default") ? DEFAULT : spec).split (";");
+      int n = names.length;
+      this.options = new SolverOptions[n];
+      this.steps = new long[n];
+      for (int i = 0; i < n; ++i) {
+         options[i] = base.copy();
+         steps[i] = maxSteps;
+         if (names[i].equals ("base")) continue;
+         for (String setting : names[i].split (",")) {
+            int eq = setting.indexOf ('=');
+            if (eq < 0) throw new IllegalArgumentException ("Expected key=value: " + setting);
+            String key = setting.substring (0, eq);
+            String value = setting.substring (eq + 1);
+            if (key.equals ("steps")) {
+               double f = Double.parseDouble (value);
+               if (!(f > 0.0)) throw new IllegalArgumentException ("Bad steps factor: " + value);
+               steps[i] = Math.max (1L, Math.round (f * maxSteps));
+            } else {
+               options[i].set (key, value);
+            }
+         }
+      }
+      this.walks = new long[n];
+      this.flips = new long[n];
+      this.nanos = new long[n];
+      this.unsat = new long[n];
+      this.solved = new long[n];
+      this.threads = new int[n];
+   }
+
+   /**
+    *    Places a thread on its first configuration
+    *    @param   rank  the rank of the thread
+    *    @return the thread's configuration
+    */
+   public synchronized int join (int rank) {
+      int config = rank % names.length;
+      ++threads[config];
+      return config;
+   }
+
+   /**
+    *    Records a thread's recent work and chooses its next configuration
+    *    @param   config   the thread's configuration
+    *    @param   w        walks completed since the last review
+    *    @param   f        flips made since the last review
+    *    @param   t        nanoseconds spent since the last review
+    *    @param   u        the clauses left unsatisfied by the best of each walk, summed
+    *    @param   s        the walks that satisfied the formula
+    *    @param   prng     the pseudorandom number generator of the calling thread
+    *    @return the thread's configuration from now on
+    */
+   public synchronized int review (int config, long w, long f, long t, long u, long s,
+                                   Random prng) {
+      walks[config] += w;
+      flips[config] += f;
+      nanos[config] += t;
+      unsat[config] += u;
+      solved[config] += s;
+
+      // pick one of the unsampled configurations uniformly
+      int target = config;
+      int unsampled = -1;
+      int seen = 0;
+      for (int i = 0; i < names.length; ++i)
+         if (threads[i] == 0 && walks[i] < MIN_WALKS && prng.nextInt (++seen) == 0)
+            unsampled = i;
+      if (unsampled >= 0 && prng.nextDouble() < EXPLORE) {
+         target = unsampled;
+      } else if (walks[config] >= MIN_WALKS) {
+         int best = config;
+         for (int i = 0; i < names.length; ++i)
+            if (walks[i] >= MIN_WALKS && score (i) < score (best)) best = i;
+         if (score (config) > score (best) * (1.0 + MARGIN)) target = best;
+      }
+
+      if (target != config) {
+         --threads[config];
+         ++threads[target];
+         ++moves;
+      }
+      return target;
+   }
+
+   /**
+    *    @return the mean number of clauses left unsatisfied by the best of each walk
+    */
+   private double meanUnsat (int config) {
+      return walks[config] == 0 ? Double.MAX_VALUE : (double) unsat[config] / walks[config];
+   }
+
+   /**
+    *    @return the mean unsatisfied clauses times the mean nanoseconds per flip
+    */
+   private double score (int config) {
+      if (walks[config] == 0) return Double.MAX_VALUE;
+      return meanUnsat (config) * nanos[config] / Math.max (1L, flips[config]);
+   }
+
+   public SolverOptions getOptions (int config) {
+      return this.options[config];
+   }
+
+   public long getSteps (int config) {
+      return this.steps[config];
+   }
+
+   /**
+    *    @return one line per configuration with its threads at the end of the run and
+    *            the numbers its score is made of, followed by the number of moves
+    */
+   public synchronized String toString () {
+      StringBuilder accum = new StringBuilder();
+      for (int i = 0; i < names.length; ++i) {
+         accum.append (String.format ("Portfolio: config=%s threads=%d walks=%d unsat=%.2f" +
+                                      " flips/s=%.0f solved=%d%n",
+                                      names[i], threads[i], walks[i],
+                                      walks[i] == 0 ? 0.0 : meanUnsat (i),
+                                      nanos[i] == 0 ? 0.0 : 1e9 * flips[i] / nanos[i],
+                                      solved[i]));
+      }
+      accum.append ("Portfolio: moves=") .append (moves);
+      return accum.toString();
+   }
+}
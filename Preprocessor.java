@@ -0,0 +1,394 @@
+/*
+ *    File: Preprocessor.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.util.Arrays;
+
+/**
+ *    Simplifies a formula between parsing and search
+ *
+ *    The pass removes repeated literals and tautological clauses, propagates unit clauses,
+ *    removes clauses subsumed by (or equal to) other clauses, and fixes pure literals. The
+ *    variables left in the remaining clauses are renumbered from 1, so the walkers search
+ *    a smaller formula, and expand() maps their assignments back to the original variables.
+ *
+ *    If the formula has an empty clause, or unit propagation derives one, the formula is
+ *    unsatisfiable; the original formula is then kept unchanged, and the solvers report
+ *    the formula unsatisfiable without searching it. The original formula is also kept
+ *    when preprocessing is turned off, though an empty clause is still reported.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class Preprocessor {
+   private final Formula original;
+   private final int numVars;
+   private final int[][] clause;
+   private final boolean[] live;
+   private final int[] value;
+   private int[][] occ;
+   private Formula reduced;
+   private int[] toOriginal;
+   private boolean unsatisfiable;
+   private final boolean enabled;
+
+   private int duplicateLiterals;
+   private int tautologies;
+   private int units;
+   private int duplicates;
+   private int subsumed;
+   private int pures;
+   private int free;
+
+   /**
+    *    Simplifies a formula
+    *    @param   formula  the formula as parsed
+    *    @param   enabled  false to search the formula as parsed
+    */
+   public Preprocessor (Formula formula, boolean enabled) {
+      this.original = formula;
+      this.enabled = enabled;
+      this.numVars = formula.getNumVars();
+      int numClauses = formula.getNumClauses();
+      this.value = new int[numVars + 1];
+      if (!enabled) {
+         this.clause = null;
+         this.live = null;
+         keepOriginal();
+         // an empty clause still settles the formula, and no walk could repair it
+         int[] clauseStart = formula.getClauseStart();
+         for (int c = 0; c < numClauses && !unsatisfiable; ++c)
+            unsatisfiable = clauseStart[c] == clauseStart[c + 1];
+         return;
+      }
+      this.clause = new int[numClauses][];
+      this.live = new boolean[numClauses];
+
+      normalize();
+      if (propagate()) {
+         shrink();
+         subsume();
+         purify();
+         build();
+      } else {
+         unsatisfiable = true;
+         keepOriginal();
+      }
+      occ = null;
+   }
+
+   /**
+    *    Searches the original formula, with every variable mapped to itself
+    */
+   private void keepOriginal () {
+      reduced = original;
+      toOriginal = new int[numVars + 1];
+      for (int v = 0; v <= numVars; ++v) toOriginal[v] = v;
+      Arrays.fill (value, 0);
+   }
+
+   /**
+    *    Copies the clauses, dropping repeated literals and tautologies
+    */
+   private void normalize () {
+      int[] literals = original.getLiterals();
+      int[] clauseStart = original.getClauseStart();
+      int[] posStamp = new int[numVars + 1];
+      int[] negStamp = new int[numVars + 1];
+      int[] buffer = new int[2 * numVars];
+      for (int c = 0; c < clause.length; ++c) {
+         int n = 0;
+         boolean tautology = false;
+         for (int i = clauseStart[c]; i < clauseStart[c + 1]; ++i) {
+            int v = literals[i];
+            int var = Math.abs(v);
+            int[] same = v > 0 ? posStamp : negStamp;
+            int[] other = v > 0 ? negStamp : posStamp;
+            if (other[var] == c + 1) tautology = true;
+            if (same[var] == c + 1) {
+               ++duplicateLiterals;
+               continue;
+            }
+            same[var] = c + 1;
+            buffer[n++] = v;
+         }
+         if (tautology) {
+            ++tautologies;
+            continue;
+         }
+         clause[c] = Arrays.copyOf (buffer, n);
+         live[c] = true;
+      }
+      index();
+   }
+
+   /**
+    *    Rebuilds the occurrence lists of the live clauses, by literal code
+    */
+   private void index () {
+      int[] count = new int[2 * (numVars + 1)];
+      for (int c = 0; c < clause.length; ++c)
+         if (live[c])
+            for (int v : clause[c]) ++count[Formula.code (v)];
+      occ = new int[count.length][];
+      for (int l = 0; l < count.length; ++l) {
+         occ[l] = new int[count[l]];
+         count[l] = 0;
+      }
+      for (int c = 0; c < clause.length; ++c)
+         if (live[c])
+            for (int v : clause[c]) occ[Formula.code (v)][count[Formula.code (v)]++] = c;
+   }
+
+   /**
+    *    Propagates the unit clauses
+    *    @return false if propagation falsified a clause
+    */
+   private boolean propagate () {
+      int[] open = new int[clause.length];
+      int[] queue = new int[numVars];
+      int head = 0, tail = 0;
+      for (int c = 0; c < clause.length; ++c) {
+         if (!live[c]) continue;
+         open[c] = clause[c].length;
+         if (open[c] == 0) return false;
+         if (open[c] == 1) {
+            int v = clause[c][0];
+            int var = Math.abs(v);
+            if (value[var] == 0) {
+               value[var] = v > 0 ? 1 : -1;
+               queue[tail++] = v;
+            } else if (value[var] != (v > 0 ? 1 : -1)) {
+               return false;
+            }
+         }
+      }
+
+      while (head < tail) {
+         int lit = queue[head++];
+         ++units;
+         for (int c : occ[Formula.code (lit)]) live[c] = false;
+         for (int c : occ[Formula.code (-lit)]) {
+            if (!live[c]) continue;
+            if (--open[c] == 0) return false;
+            if (open[c] > 1) continue;
+
+            // the clause has become a unit, unless a pending literal already satisfies it
+            for (int v : clause[c]) {
+               int var = Math.abs(v);
+               if (value[var] == 0) {
+                  value[var] = v > 0 ? 1 : -1;
+                  queue[tail++] = v;
+                  break;
+               }
+            }
+         }
+      }
+      return true;
+   }
+
+   /**
+    *    Drops the falsified literals from the live clauses
+    */
+   private void shrink () {
+      for (int c = 0; c < clause.length; ++c) {
+         if (!live[c]) continue;
+         int n = 0;
+         for (int v : clause[c])
+            if (value[Math.abs(v)] == 0) ++n;
+         if (n == clause[c].length) continue;
+         int[] kept = new int[n];
+         n = 0;
+         for (int v : clause[c])
+            if (value[Math.abs(v)] == 0) kept[n++] = v;
+         clause[c] = kept;
+      }
+      index();
+   }
+
+   /**
+    *    Removes every clause that contains all the literals of another clause
+    */
+   private void subsume () {
+      // shorter clauses subsume longer ones, so try them first
+      int[] first = new int[2 * numVars + 2];
+      for (int c = 0; c < clause.length; ++c)
+         if (live[c]) ++first[clause[c].length + 1];
+      for (int len = 1; len < first.length; ++len)
+         first[len] += first[len - 1];
+      int n = first[first.length - 1];
+      int[] order = new int[n];
+      for (int c = 0; c < clause.length; ++c)
+         if (live[c]) order[first[clause[c].length]++] = c;
+
+      int[] stamp = new int[2 * (numVars + 1)];
+      for (int k = 0; k < n; ++k) {
+         int c = order[k];
+         if (!live[c]) continue;
+
+         // candidates must contain the rarest literal of c
+         int rarest = clause[c][0];
+         for (int v : clause[c]) {
+            stamp[Formula.code (v)] = c + 1;
+            if (occ[Formula.code (v)].length < occ[Formula.code (rarest)].length) rarest = v;
+         }
+         for (int d : occ[Formula.code (rarest)]) {
+            if (d == c || !live[d] || clause[d].length < clause[c].length) continue;
+            int shared = 0;
+            for (int v : clause[d])
+               if (stamp[Formula.code (v)] == c + 1) ++shared;
+            if (shared == clause[c].length) {
+               live[d] = false;
+               if (clause[d].length == clause[c].length) ++duplicates;
+               else ++subsumed;
+            }
+         }
+      }
+      index();
+   }
+
+   /**
+    *    Fixes every variable that occurs with one sign only in the live clauses
+    */
+   private void purify () {
+      int[] pos = new int[numVars + 1];
+      int[] neg = new int[numVars + 1];
+      for (int var = 1; var <= numVars; ++var) {
+         for (int c : occ[2 * var]) if (live[c]) ++pos[var];
+         for (int c : occ[2 * var + 1]) if (live[c]) ++neg[var];
+      }
+
+      int[] stack = new int[numVars];
+      boolean[] stacked = new boolean[numVars + 1];
+      int top = 0;
+      for (int var = 1; var <= numVars; ++var) {
+         if (value[var] == 0 && (pos[var] == 0) != (neg[var] == 0)) {
+            stack[top++] = var;
+            stacked[var] = true;
+         }
+      }
+
+      while (top > 0) {
+         int var = stack[--top];
+         stacked[var] = false;
+         if (value[var] != 0 || (pos[var] == 0) == (neg[var] == 0)) continue;
+         int lit = pos[var] > 0 ? var : -var;
+         value[var] = lit > 0 ? 1 : -1;
+         ++pures;
+
+         // satisfied clauses no longer count towards the other variables' signs
+         for (int c : occ[Formula.code (lit)]) {
+            if (!live[c]) continue;
+            live[c] = false;
+            for (int v : clause[c]) {
+               int u = Math.abs(v);
+               if (value[u] != 0) continue;
+               if (v > 0) --pos[u];
+               else --neg[u];
+               if (!stacked[u] && (pos[u] == 0) != (neg[u] == 0)) {
+                  stack[top++] = u;
+                  stacked[u] = true;
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    *    Renumbers the variables of the live clauses and builds the reduced formula
+    */
+   private void build () {
+      int[] toReduced = new int[numVars + 1];
+      int n = 0;
+      int m = 0;
+      int size = 0;
+      for (int c = 0; c < clause.length; ++c) {
+         if (!live[c]) continue;
+         ++m;
+         size += clause[c].length;
+         for (int v : clause[c])
+            if (toReduced[Math.abs(v)] == 0) toReduced[Math.abs(v)] = ++n;
+      }
+
+      toOriginal = new int[n + 1];
+      for (int var = 1; var <= numVars; ++var) {
+         if (toReduced[var] != 0) toOriginal[toReduced[var]] = var;
+         else if (value[var] == 0) ++free;
+      }
+
+      int[] literals = new int[size];
+      int[] clauseStart = new int[m + 1];
+      int k = 0;
+      int i = 0;
+      for (int c = 0; c < clause.length; ++c) {
+         if (!live[c]) continue;
+         clauseStart[k++] = i;
+         for (int v : clause[c])
+            literals[i++] = v > 0 ? toReduced[v] : -toReduced[-v];
+      }
+      clauseStart[m] = size;
+      reduced = new Formula (n, m, literals, clauseStart);
+   }
+
+   /**
+    *    @return the formula to search
+    */
+   public Formula getFormula () {
+      return this.reduced;
+   }
+
+   /**
+    *    @return the formula as parsed
+    */
+   public Formula getOriginal () {
+      return this.original;
+   }
+
+   /**
+    *    @return true if unit propagation proved the formula unsatisfiable
+    */
+   public boolean isUnsatisfiable () {
+      return this.unsatisfiable;
+   }
+
+   /**
+    *    Maps an assignment of the searched formula back to the original variables
+    *
+    *    Variables fixed by the pass take their fixed value, and variables that no longer
+    *    occur in any clause are false.
+    *
+    *    @param   assign   a truth assignment of the searched formula, as a bit vector
+    *    @return the truth assignment of the original formula, as a bit vector
+    */
+   public long[] expand (long[] assign) {
+      long[] result = new long[BitVector.words (numVars + 1)];
+      for (int var = 1; var <= numVars; ++var)
+         if (value[var] > 0) BitVector.set (var, result);
+      for (int r = 1; r < toOriginal.length; ++r)
+         if (BitVector.get (r, assign)) BitVector.set (toOriginal[r], result);
+      return result;
+   }
+
+   /**
+    *    @return how much the formula shrank, and why
+    */
+   public String toString () {
+      if (!enabled)
+         return unsatisfiable ? "Preprocessed: off, an empty clause makes the formula unsatisfiable"
+                              : "Preprocessed: off";
+      if (unsatisfiable)
+         return "Preprocessed: unit propagation falsified a clause, the formula is unsatisfiable";
+      return String.format ("Preprocessed: vars %d -> %d, clauses %d -> %d, literals %d -> %d" +
+                            " (units=%d pure=%d free=%d tautologies=%d duplicates=%d" +
+                            " subsumed=%d repeated literals=%d)",
+                            numVars, reduced.getNumVars(), original.getNumClauses(),
+                            reduced.getNumClauses(), original.getNumLiterals(),
+                            reduced.getNumLiterals(), units, pures, free, tautologies,
+                            duplicates, subsumed, duplicateLiterals);
+   }
+}
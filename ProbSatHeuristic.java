@@ -0,0 +1,85 @@
+/*
+ *    File: ProbSatHeuristic.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import edu.rit.util.Random;
+
+/**
+ *    The probSAT variable choice of Balint and Schoening
+ *
+ *    Every variable of the clause is flipped with probability proportional to f(break),
+ *    where f is either polynomial, (eps + break)^-cb, or exponential, cb^-break. The
+ *    values of f are tabulated once for every breakcount the formula allows, so a pick
+ *    costs one breakcount and one table lookup per literal.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class ProbSatHeuristic implements Heuristic {
+   // defaults tuned by Balint and Schoening for random 3-SAT
+   static final double POLY_CB = 2.38;
+   static final double EXP_CB = 2.5;
+   static final double EPS = 1.0;
+
+   private final int[] literals;
+   private final int[] clauseStart;
+   private final double[] weight;
+   private final double[] probs;
+   private final int[] vars;
+
+   /**
+    *    Creates the heuristic for one walker
+    *    @param   formula     the formula searched
+    *    @param   polynomial  true for the polynomial break distribution, false for the exponential
+    *    @param   cb          the base of the break distribution
+    */
+   public ProbSatHeuristic (Formula formula, boolean polynomial, double cb) {
+      this.literals = formula.getLiterals();
+      this.clauseStart = formula.getClauseStart();
+
+      // a flip breaks at most the clauses its literal occurs in
+      int[] occStart = formula.getOccStart();
+      int maxOcc = 0;
+      for (int l = 0; l + 1 < occStart.length; ++l)
+         maxOcc = Math.max (maxOcc, occStart[l + 1] - occStart[l]);
+      this.weight = new double[maxOcc + 1];
+      for (int b = 0; b <= maxOcc; ++b)
+         weight[b] = polynomial ? Math.pow (EPS + b, -cb) : Math.pow (cb, -b);
+
+      int maxLen = 0;
+      for (int c = 0; c < formula.getNumClauses(); ++c)
+         maxLen = Math.max (maxLen, clauseStart[c + 1] - clauseStart[c]);
+      this.probs = new double[maxLen];
+      this.vars = new int[maxLen];
+   }
+
+   public int pick (ClauseState state, int clause, Random prng) {
+      int first = clauseStart[clause];
+      int n = clauseStart[clause + 1] - first;
+
+      double sum = 0.0;
+      for (int i = 0; i < n; ++i) {
+         int v = Math.abs(literals[first + i]);
+         vars[i] = v;
+         sum += weight[state.breakCount (v)];
+         probs[i] = sum;
+      }
+
+      // sample from the cumulative weights
+      double r = prng.nextDouble() * sum;
+      for (int i = 0; i < n - 1; ++i)
+         if (r < probs[i]) return vars[i];
+      return vars[n - 1];
+   }
+
+   public void flipped (int var, long flips) {
+   }
+
+   public void restart () {
+   }
+}
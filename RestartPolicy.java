@@ -0,0 +1,124 @@
+/*
+ *    File: RestartPolicy.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+/**
+ *    Decides how many step rounds a walk may take before it restarts
+ *
+ *    Policies:
+ *       none              a walk ends as soon as a step round fails to improve it
+ *       fixed:C           every walk takes C rounds
+ *       geometric:C:r     walk i takes C * r^(i-1) rounds, the sequence starting over
+ *                         once the next term would pass GEOMETRIC_SPAN * C
+ *       luby:C            walk i takes C * luby(i) rounds, luby being 1 1 2 1 1 2 4 ...
+ *
+ *    Under every policy but none, a walk keeps moving through rounds that do not improve
+ *    it, so it can leave a plateau, and it ends only at its cutoff or at a solution.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class RestartPolicy {
+   private static final int NONE = 0;
+   private static final int FIXED = 1;
+   private static final int GEOMETRIC = 2;
+   private static final int LUBY = 3;
+
+   // the longest geometric cutoff, as a multiple of the first; an unbounded sequence soon
+   // leaves one walk circling a plateau for the rest of the run
+   static final double GEOMETRIC_SPAN = 1000.0;
+
+   private final int type;
+   private final long base;
+   private final double factor;
+   private final long period;
+   private final String text;
+
+   private RestartPolicy (int type, long base, double factor, String text) {
+      this.type = type;
+      this.base = base;
+      this.factor = factor;
+      this.period = factor > 1.0
+                    ? (long) Math.floor (Math.log (GEOMETRIC_SPAN) / Math.log (factor)) + 1L : 1L;
+      this.text = text;
+   }
+
+   /**
+    *    Parses a policy
+    *    @param   text  the policy, in one of the forms listed above
+    *    @return the policy
+    *    @throws  IllegalArgumentException if the policy is not recognized
+    */
+   public static RestartPolicy parse (String text) {
+      String[] parts = text.split (":");
+      try {
+         if (parts[0].equals ("none") && parts.length == 1)
+            return new RestartPolicy (NONE, 0L, 1.0, text);
+         if (parts[0].equals ("fixed") && parts.length == 2)
+            return new RestartPolicy (FIXED, positive (parts[1]), 1.0, text);
+         if (parts[0].equals ("geometric") && parts.length == 3) {
+            double r = Double.parseDouble (parts[2]);
+            if (r < 1.0) throw new NumberFormatException();
+            return new RestartPolicy (GEOMETRIC, positive (parts[1]), r, text);
+         }
+         if (parts[0].equals ("luby") && parts.length == 2)
+            return new RestartPolicy (LUBY, positive (parts[1]), 1.0, text);
+      } catch (NumberFormatException nfe) {
+      }
+      throw new IllegalArgumentException ("Unknown restart policy: " + text);
+   }
+
+   private static long positive (String s) {
+      long x = Long.parseLong (s);
+      if (x < 1) throw new NumberFormatException();
+      return x;
+   }
+
+   /**
+    *    @return true if walks continue through rounds that do not improve them
+    */
+   public boolean continuesOnStagnation () {
+      return type != NONE;
+   }
+
+   /**
+    *    @param   walk  the index of a walk, starting at 1
+    *    @return the number of step rounds the walk may take
+    */
+   public long cutoff (long walk) {
+      switch (type) {
+         case FIXED:
+            return base;
+         case GEOMETRIC:
+            double c = base * Math.pow (factor, (walk - 1) % period);
+            return c >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) c;
+         case LUBY:
+            long l = luby (walk);
+            return l > Long.MAX_VALUE / base ? Long.MAX_VALUE : base * l;
+         default:
+            return Long.MAX_VALUE;
+      }
+   }
+
+   /**
+    *    @param   i  a position in the Luby sequence, starting at 1
+    *    @return the i-th term of the Luby sequence
+    */
+   static long luby (long i) {
+      while (true) {
+         int k = 1;
+         while ((1L << k) - 1 < i) ++k;
+         if (i == (1L << k) - 1) return 1L << (k - 1);
+         i -= (1L << (k - 1)) - 1;
+      }
+   }
+
+   public String toString () {
+      return this.text;
+   }
+}
@@ -0,0 +1,95 @@
+/*
+ *    File: RunStats.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+/**
+ *    Work counters of a solver run, printed as one machine-readable line
+ *
+ *    Threads add their walker's totals once, when they finish, so the counters cost
+ *    nothing in the step loop. The line has the form
+ *
+ *       Stats: walks=W flips=F candidates=C time=T ms flips/s=R solved=S ms cutoffs=X noise=P bumps=B
+ *
+ *    where S is the time to the first solution, or -1 if none was found, X the number of
+ *    walks ended by the restart policy, P the mean noise level the threads ended at, and
+ *    B the number of local minima at which clause weights were raised. A run whose
+ *    preprocessing or complete search proved the formula unsatisfiable ends the line with
+ *    unsat=U ms, the time to the proof.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class RunStats {
+   private final long startTime;
+   private long walks;
+   private long flips;
+   private long candidates;
+   private long cutoffs;
+   private long bumps;
+   private double noise;
+   private int threads;
+
+   /**
+    *    Starts the clock for the run
+    */
+   public RunStats () {
+      this.startTime = System.currentTimeMillis();
+   }
+
+   /**
+    *    Adds the work done by one thread
+    *    @param   walks    the number of walks the thread completed
+    *    @param   walker   the thread's walker
+    */
+   public synchronized void add (long walks, Walker walker) {
+      this.walks += walks;
+      this.flips += walker.getFlips();
+      this.candidates += walker.getCandidates();
+      this.cutoffs += walker.getCutoffs();
+      this.bumps += walker.getBumps();
+      this.noise += walker.getNoise().level();
+      ++this.threads;
+   }
+
+   public synchronized long getWalks () {
+      return this.walks;
+   }
+
+   public synchronized long getFlips () {
+      return this.flips;
+   }
+
+   /**
+    *    Formats the stats line
+    *    @param   stop  the run's stop signal, holding the time to the first solution
+    *    @return the stats line
+    */
+   public synchronized String format (StopSignal stop) {
+      long time = System.currentTimeMillis() - startTime;
+      return String.format ("Stats: walks=%d flips=%d candidates=%d time=%d ms flips/s=%.0f solved=%d ms" +
+                            " cutoffs=%d noise=%.4f bumps=%d",
+                            walks, flips, candidates, time,
+                            time == 0 ? 0.0 : 1000.0 * flips / time, stop.getElapsed(),
+                            cutoffs, threads == 0 ? 0.0 : noise / threads, bumps)
+             + (stop.getRefuted() < 0 ? "" : " unsat=" + stop.getRefuted() + " ms");
+   }
+
+   /**
+    *    Reads a field back out of a stats line
+    *    @param   line  a line printed by format()
+    *    @param   key   the name of the field, such as "walks" or "time"
+    *    @return the value of the field, or -1 if it is absent
+    */
+   public static double field (String line, String key) {
+      for (String token : line.split (" ")) {
+         if (token.startsWith (key + "="))
+            return Double.parseDouble (token.substring (key.length() + 1));
+      }
+      return -1.0;
+   }
+}
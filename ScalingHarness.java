@@ -0,0 +1,280 @@
+/*
+ *    File: ScalingHarness.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures how WalkSATSmp scales against WalkSATSeq over a corpus of instances
+ *
+ * Every instance is solved by WalkSATSeq and by WalkSATSmp with pj2 cores=1..P,
+ * once per seed, each run in a fresh JVM launched with this JVM's classpath.
+ * The harness reads the Stats line each solver prints, and relates the WalkSATSmp
+ * runs to the WalkSATSeq run with the same instance and seed:
+ *    speedup     S(K) = Tseq / T(K)
+ *    efficiency  E(K) = S(K) / K
+ *    Karp-Flatt  e(K) = (1/S(K) - 1/K) / (1 - 1/K), for K > 1
+ * where T is the wall time of the run. The same ratios over time-to-first-solution
+ * are reported where both runs found a solution.
+ *
+ * Results are written as one CSV row per run to out.csv and as the per-instance,
+ * per-core-count means to out.json. Every row has a status of sat, unsat, unknown or
+ * failed; a run that exits with an error or prints no Stats line is written as failed,
+ * with empty metrics, and counted but left out of the means, so one bad run does not
+ * lose the others.
+ *
+ * Usage: java ScalingHarness P N nStep seeds out input...
+ *        P - largest number of cores to try
+ *        N - number of iterations per run
+ *        nStep - number of steps per iteration
+ *        seeds - comma separated list of long seeds
+ *        out - path prefix of the CSV and JSON reports
+ *        input - .dimacs files, or directories of them
+ *
+ * @author Connor Adsit
+ * @author Kevin Bradley
+ * @author Christian Heinrich
+ */
+public class ScalingHarness {
+   /**
+    * The outcome of one solver run
+    */
+   private static class Run {
+      String instance;
+      String solver;
+      int cores;
+      long seed;
+      String status = "failed";
+      double wall = Double.NaN;
+      double walks = Double.NaN;
+      double flips = Double.NaN;
+      double flipRate = Double.NaN;
+      double solved = Double.NaN;
+      double speedup = Double.NaN;
+      double efficiency = Double.NaN;
+      double karpFlatt = Double.NaN;
+      double solveSpeedup = Double.NaN;
+
+      boolean failed () {
+         return status.equals ("failed");
+      }
+   }
+
+   /**
+    * Main Function:
+    * @param   args  the harness parameters and the corpus
+    */
+   public static void main (String[] args) throws Exception {
+      if (args.length < 6) usage();
+      int maxCores = 0;
+      long[] seeds = null;
+      try {
+         maxCores = Integer.parseInt(args[0]);
+         Long.parseLong(args[1]);
+         Long.parseLong(args[2]);
+         String[] s = args[3].split(",");
+         seeds = new long[s.length];
+         for (int i = 0; i < s.length; ++i) seeds[i] = Long.parseLong(s[i].trim());
+      } catch (NumberFormatException nfe) {
+         usage();
+      }
+      String out = args[4];
+      List<String> corpus = new ArrayList<String>();
+      for (int i = 5; i < args.length; ++i) collect (new File (args[i]), corpus);
+
+      List<Run> runs = new ArrayList<Run>();
+      for (String instance : corpus) {
+         for (long seed : seeds) {
+            Run seq = run ("WalkSATSeq", 1, instance, seed, args[1], args[2]);
+            runs.add (seq);
+            for (int k = 1; k <= maxCores; ++k) {
+               Run par = run ("WalkSATSmp", k, instance, seed, args[1], args[2]);
+               runs.add (par);
+               if (seq.failed() || par.failed()) continue;
+               // runs are timed in whole milliseconds, so clamp to 1 ms to avoid dividing by 0
+               par.speedup = Math.max (1.0, seq.wall) / Math.max (1.0, par.wall);
+               par.efficiency = par.speedup / k;
+               if (k > 1) par.karpFlatt = (1.0 / par.speedup - 1.0 / k) / (1.0 - 1.0 / k);
+               if (seq.solved >= 0 && par.solved >= 0)
+                  par.solveSpeedup = Math.max (1.0, seq.solved) / Math.max (1.0, par.solved);
+            }
+         }
+      }
+
+      writeCsv (out + ".csv", runs);
+      writeJson (out + ".json", runs, corpus, maxCores);
+   }
+
+   /**
+    * Prints out a usage statement
+    */
+   private static void usage() {
+      System.err.println("Usage: java ScalingHarness <P> <N> <nStep> <seeds> <out> <input>...");
+      System.err.println("P - largest number of cores to try");
+      System.err.println("N - long number of iterations per run");
+      System.err.println("nStep - long number of assignments to generate per iteration");
+      System.err.println("seeds - comma separated list of long seeds");
+      System.err.println("out - path prefix of the .csv and .json reports");
+      System.err.println("input - .dimacs files or directories of them");
+      System.exit(0);
+   }
+
+   /**
+    * Adds a file, or the .dimacs and .cnf files of a directory, to the corpus
+    */
+   private static void collect (File f, List<String> corpus) {
+      if (f.isDirectory()) {
+         File[] files = f.listFiles();
+         Arrays.sort (files);
+         for (File g : files)
+            if (g.getName().endsWith (".dimacs") || g.getName().endsWith (".cnf"))
+               corpus.add (g.getPath());
+      } else {
+         corpus.add (f.getPath());
+      }
+   }
+
+   /**
+    * Runs a solver in a fresh JVM and reads its Stats line
+    * @return the run, marked failed if the solver could not be started, exited with an
+    *         error or printed no Stats line
+    */
+   private static Run run (String solver, int cores, String instance, long seed,
+                           String maxIter, String maxSteps) throws InterruptedException {
+      Run r = new Run();
+      r.instance = instance;
+      r.solver = solver;
+      r.cores = cores;
+      r.seed = seed;
+
+      String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+      ProcessBuilder pb = new ProcessBuilder (java, "-cp", System.getProperty("java.class.path"),
+                                              "pj2", "cores=" + cores, solver,
+                                              maxIter, maxSteps, "" + seed, instance);
+      pb.redirectErrorStream (true);
+      String stats = null;
+      try {
+         Process p = pb.start();
+         BufferedReader in = new BufferedReader (new InputStreamReader (p.getInputStream()));
+         for (String line = in.readLine(); line != null; line = in.readLine())
+            if (line.startsWith ("Stats:")) stats = line;
+         int exit = p.waitFor();
+         if (exit != 0)
+            throw new IOException (solver + " exited with status " + exit + " for " + instance);
+         if (stats == null)
+            throw new IOException (solver + " printed no Stats line for " + instance);
+      } catch (IOException e) {
+         System.err.printf ("%s cores=%d seed=%d %s: failed, %s\n", solver, cores, seed, instance,
+                            e.getMessage());
+         return r;
+      }
+
+      r.wall = RunStats.field (stats, "time");
+      r.walks = RunStats.field (stats, "walks");
+      r.flips = RunStats.field (stats, "flips");
+      r.flipRate = RunStats.field (stats, "flips/s");
+      r.solved = RunStats.field (stats, "solved");
+      r.status = r.solved >= 0 ? "sat" : RunStats.field (stats, "unsat") >= 0 ? "unsat" : "unknown";
+      System.err.printf ("%s cores=%d seed=%d %s: %.0f ms\n", solver, cores, seed, instance, r.wall);
+      return r;
+   }
+
+   /**
+    * Writes one row per run
+    */
+   private static void writeCsv (String path, List<Run> runs) throws IOException {
+      PrintWriter w = new PrintWriter (path);
+      w.println ("instance,solver,cores,seed,status,wall_ms,walks,flips,flips_per_sec,tts_ms," +
+                 "speedup,efficiency,karp_flatt,tts_speedup");
+      for (Run r : runs) {
+         w.printf ("%s,%s,%d,%d,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s\n",
+                   r.instance, r.solver, r.cores, r.seed, r.status, whole (r.wall),
+                   whole (r.walks), whole (r.flips), whole (r.flipRate), whole (r.solved),
+                   num (r.speedup), num (r.efficiency), num (r.karpFlatt), num (r.solveSpeedup));
+      }
+      w.close();
+   }
+
+   /**
+    * Writes the mean metrics of every instance and core count
+    */
+   private static void writeJson (String path, List<Run> runs, List<String> corpus, int maxCores)
+         throws IOException {
+      PrintWriter w = new PrintWriter (path);
+      w.println ("[");
+      boolean first = true;
+      for (String instance : corpus) {
+         for (int k = 0; k <= maxCores; ++k) {
+            // k == 0 stands for the sequential baseline
+            String solver = k == 0 ? "WalkSATSeq" : "WalkSATSmp";
+            int cores = Math.max (1, k);
+            double[] sum = new double[7];
+            int[] count = new int[7];
+            int failed = 0;
+            for (Run r : runs) {
+               if (!r.instance.equals (instance) || !r.solver.equals (solver) || r.cores != cores)
+                  continue;
+               if (r.failed()) {
+                  ++failed;
+                  continue;
+               }
+               double[] v = { r.wall, r.flipRate, r.solved, r.speedup, r.efficiency,
+                              r.karpFlatt, r.solveSpeedup };
+               for (int i = 0; i < v.length; ++i) {
+                  // tts is -1 for a run without a solution, while a negative Karp-Flatt
+                  // metric is a superlinear speedup, and counts
+                  if (!Double.isNaN (v[i]) && (i != 2 || v[i] >= 0)) {
+                     sum[i] += v[i];
+                     ++count[i];
+                  }
+               }
+            }
+            if (!first) w.println (",");
+            first = false;
+            w.printf ("  {\"instance\": \"%s\", \"solver\": \"%s\", \"cores\": %d, " +
+                      "\"failed\": %d, \"wall_ms\": %s, \"flips_per_sec\": %s, \"tts_ms\": %s, " +
+                      "\"speedup\": %s, \"efficiency\": %s, \"karp_flatt\": %s, \"tts_speedup\": %s}",
+                      instance.replace ("\\", "\\\\").replace ("\"", "\\\""), solver, cores,
+                      failed,
+                      mean (sum, count, 0), mean (sum, count, 1), mean (sum, count, 2),
+                      mean (sum, count, 3), mean (sum, count, 4), mean (sum, count, 5),
+                      mean (sum, count, 6));
+         }
+      }
+      w.println ();
+      w.println ("]");
+      w.close();
+   }
+
+   /**
+    * @return the mean of sums[i], or null if nothing was added to it
+    */
+   private static String mean (double[] sum, int[] count, int i) {
+      return count[i] == 0 ? "null" : String.format ("%.4f", sum[i] / count[i]);
+   }
+
+   /**
+    * @return the whole number formatted for a report, or an empty field if it is undefined
+    */
+   private static String whole (double x) {
+      return Double.isNaN (x) ? "" : String.format ("%.0f", x);
+   }
+
+   /**
+    * @return the number formatted for a report, or an empty field if it is undefined
+    */
+   private static String num (double x) {
+      return Double.isNaN (x) ? "" : String.format ("%.4f", x);
+   }
+}
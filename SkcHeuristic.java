@@ -0,0 +1,69 @@
+/*
+ *    File: SkcHeuristic.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import edu.rit.util.Random;
+
+/**
+ *    The WalkSAT variable choice of Selman, Kautz and Cohen
+ *
+ *    If some variable of the clause breaks no clause, it is flipped (a freebie move).
+ *    Otherwise, with probability equal to the noise, a random variable of the clause is
+ *    flipped, and else one that breaks the fewest clauses. Ties are broken uniformly.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class SkcHeuristic implements Heuristic {
+   private final int[] literals;
+   private final int[] clauseStart;
+   private final Noise noise;
+
+   /**
+    *    Creates the heuristic for one walker
+    *    @param   formula  the formula searched
+    *    @param   noise    the noise level of the walker
+    */
+   public SkcHeuristic (Formula formula, Noise noise) {
+      this.literals = formula.getLiterals();
+      this.clauseStart = formula.getClauseStart();
+      this.noise = noise;
+   }
+
+   public int pick (ClauseState state, int clause, Random prng) {
+      int first = clauseStart[clause];
+      int end = clauseStart[clause + 1];
+
+      // find a variable with the least breakcount
+      int bc = Integer.MAX_VALUE;
+      int var = 0;
+      int ties = 0;
+      for (int i = first; i < end; ++i) {
+         int v = Math.abs(literals[i]);
+         int b = state.breakCount (v);
+         if (b < bc) {
+            bc = b;
+            var = v;
+            ties = 1;
+         } else if (b == bc && prng.nextInt (++ties) == 0) {
+            var = v;
+         }
+      }
+
+      // take a freebie, else walk randomly with the noise probability
+      if (bc > 0 && prng.nextDouble() < noise.level())
+         var = Math.abs(literals[first + prng.nextInt(end - first)]);
+      return var;
+   }
+
+   public void flipped (int var, long flips) {
+   }
+
+   public void restart () {
+   }
+}
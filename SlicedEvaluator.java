@@ -0,0 +1,149 @@
+/*
+ *    File: SlicedEvaluator.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.util.Arrays;
+
+/**
+ *    Scores up to 64 candidate flips at once with bit-sliced clause evaluation
+ *
+ *    Candidate j is the current assignment with one variable flipped. In the sliced
+ *    view, bit j of a variable's word holds the variable's value in candidate j, so the
+ *    word is the current value broadcast to all 64 bits, xor the mask of the candidates
+ *    that flip the variable. OR-ing the words of a clause's literals gives the candidates
+ *    that satisfy the clause, 64 at a time.
+ *
+ *    Only the clauses containing a flipped variable can change, so each of them is
+ *    evaluated once per batch, however many candidates share it. The true-literal count
+ *    of the clause state narrows this further: a clause with two true literals survives
+ *    every single flip and is skipped, a clause with one true literal adds the candidates
+ *    that flip it to the break counter, and a falsified clause adds the candidates that
+ *    flip any of its variables to the make counter. The counters are
+ *    vertical: plane b holds bit b of all 64 counts, and adding a mask is a ripple of
+ *    AND/XOR over the planes.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class SlicedEvaluator {
+   // candidates per batch, one per bit of a word
+   public static final int WIDTH = 64;
+
+   private final int[] literals;
+   private final int[] clauseStart;
+   private final int[] occStart;
+   private final int[] occList;
+   private final long[] flipMask;
+   private final int[] stamp;
+   private final int[] touched;
+   private final long[] breakPlanes = new long[32];
+   private final long[] makePlanes = new long[32];
+   private int batch;
+
+   /**
+    *    Creates the evaluator of one walker
+    *    @param   formula  the formula searched
+    */
+   public SlicedEvaluator (Formula formula) {
+      this.literals = formula.getLiterals();
+      this.clauseStart = formula.getClauseStart();
+      this.occStart = formula.getOccStart();
+      this.occList = formula.getOccList();
+      this.flipMask = new long[formula.getNumVars() + 1];
+      this.stamp = new int[formula.getNumClauses()];
+      this.touched = new int[WIDTH];
+   }
+
+   /**
+    *    Calculates the break and make counts of a batch of candidate flips
+    *    @param   state    the clause state holding the current assignment
+    *    @param   vars     the variable each candidate flips
+    *    @param   n        the number of candidates, at most WIDTH
+    *    @param   breaks   receives the breakcount of each candidate
+    *    @param   makes    receives the makecount of each candidate
+    */
+   public void evaluate (ClauseState state, int[] vars, int n, int[] breaks, int[] makes) {
+      long[] assign = state.getAssign();
+      int breakUsed = 0;
+      int makeUsed = 0;
+
+      // the mask of candidates flipping each variable
+      int numTouched = 0;
+      for (int j = 0; j < n; ++j) {
+         int v = vars[j];
+         if (flipMask[v] == 0L) touched[numTouched++] = v;
+         flipMask[v] |= 1L << j;
+      }
+
+      // a new batch number marks the clauses already evaluated
+      if (++batch == 0) {
+         Arrays.fill (stamp, 0);
+         batch = 1;
+      }
+      for (int t = 0; t < numTouched; ++t) {
+         int v = touched[t];
+         for (int i = occStart[2 * v]; i < occStart[2 * v + 2]; ++i) {
+            int c = occList[i];
+            if (stamp[c] == batch) continue;
+            stamp[c] = batch;
+
+            // one flip cannot falsify a clause with two true literals
+            int numTrue = state.getNumTrue (c);
+            if (numTrue > 1) continue;
+
+            // a falsified clause is made by every flip of its variables, and a clause
+            // with one true literal is broken by the flips of that literal's variable
+            long mask = 0L;
+            for (int k = clauseStart[c]; k < clauseStart[c + 1]; ++k) {
+               int lit = literals[k];
+               int u = Math.abs(lit);
+               if (numTrue == 0 || BitVector.get (u, assign) == lit > 0) mask |= flipMask[u];
+            }
+            if (numTrue == 0) makeUsed = add (makePlanes, makeUsed, mask);
+            else breakUsed = add (breakPlanes, breakUsed, mask);
+         }
+      }
+
+      for (int j = 0; j < n; ++j) {
+         breaks[j] = extract (breakPlanes, breakUsed, j);
+         makes[j] = extract (makePlanes, makeUsed, j);
+      }
+
+      // leave the scratch state clean for the next batch
+      for (int t = 0; t < numTouched; ++t) flipMask[touched[t]] = 0L;
+      for (int b = 0; b < breakUsed; ++b) breakPlanes[b] = 0L;
+      for (int b = 0; b < makeUsed; ++b) makePlanes[b] = 0L;
+   }
+
+   /**
+    *    Adds one to the vertical counters of the candidates in a mask
+    *    @param   planes   the counter planes
+    *    @param   used     the number of planes in use
+    *    @param   carry    the candidates to count
+    *    @return the number of planes in use afterwards
+    */
+   private static int add (long[] planes, int used, long carry) {
+      for (int b = 0; carry != 0L; ++b) {
+         long t = planes[b] & carry;
+         planes[b] ^= carry;
+         carry = t;
+         if (b >= used) used = b + 1;
+      }
+      return used;
+   }
+
+   /**
+    *    @return the count of candidate j in the vertical counters
+    */
+   private static int extract (long[] planes, int used, int j) {
+      int result = 0;
+      for (int b = 0; b < used; ++b)
+         result |= (int) ((planes[b] >>> j) & 1L) << b;
+      return result;
+   }
+}
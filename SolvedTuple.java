@@ -0,0 +1,51 @@
+/*
+ *    File: SolvedTuple.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import edu.rit.io.InStream;
+import edu.rit.io.OutStream;
+import edu.rit.pj2.Tuple;
+import java.io.IOException;
+
+/**
+ *    Announces to every worker task that the formula has been solved
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class SolvedTuple extends Tuple {
+   public int worker;
+
+   /**
+    *    Construct a new template tuple
+    */
+   public SolvedTuple () {
+   }
+
+   /**
+    *    Construct a new announcement
+    *    @param   worker   the rank of the worker task that solved the formula
+    */
+   public SolvedTuple (int worker) {
+      this.worker = worker;
+   }
+
+   /**
+    *    Write this tuple to the given out stream
+    */
+   public void writeOut (OutStream out) throws IOException {
+      out.writeInt (worker);
+   }
+
+   /**
+    *    Read this tuple from the given in stream
+    */
+   public void readIn (InStream in) throws IOException {
+      worker = in.readInt();
+   }
+}
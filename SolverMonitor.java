@@ -0,0 +1,340 @@
+/*
+ *    File: SolverMonitor.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ *    Reports the progress of a search while it runs
+ *
+ *    Every walker owns a probe, which it updates once per step round and once per walk
+ *    with a few volatile writes, so a walker never waits on the monitor. A daemon thread
+ *    samples the probes every period and
+ *
+ *       prints a Progress line with the walks, flips, flips/s, the best true count so
+ *       far, the falsified clauses of the best assignment and each thread's flips/s;
+ *       commits a walksat.Sample JFR event with the same numbers;
+ *       keeps the falsified-clause count of the last HISTORY samples.
+ *
+ *    The numbers are also served by an MBean, and every walk commits a walksat.Walk JFR
+ *    event with its thread, flips and best true count. The JFR events cost nothing unless
+ *    a recording enables them, e.g. java -XX:StartFlightRecording=filename=run.jfr, and
+ *    without one a walk does not even allocate its event.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class SolverMonitor implements SolverMonitorMBean {
+   // the default milliseconds between samples
+   static final long PERIOD = 1000L;
+   // the number of samples kept in the history
+   static final int HISTORY = 64;
+
+   // numbers the runs of one JVM, to name their MBeans
+   private static final AtomicInteger RUNS = new AtomicInteger();
+   // tells whether a recording wants walk events, before one is allocated
+   private static final EventType WALK = EventType.getEventType (WalkEvent.class);
+
+   private final int numClauses;
+   private final long period;
+   private final PrintStream out;
+   private final long startTime = System.currentTimeMillis();
+   private final CopyOnWriteArrayList<Probe> probes = new CopyOnWriteArrayList<Probe>();
+   private Thread sampler;
+   private volatile ObjectName name;
+
+   // the results of the last sample
+   private long walks;
+   private long flips;
+   private double flipsPerSecond;
+   private int bestTrueCount = -1;
+   private double[] threadRates = new double[0];
+   private final int[] history = new int[HISTORY];
+   private int samples;
+   private long lastTime = startTime;
+
+   /**
+    *    The progress of one walker, written by its thread and read by the sampler
+    */
+   public static class Probe {
+      final int rank;
+      volatile long walks;
+      volatile long flips;
+      volatile int bestTrueCount = -1;
+      // the flips of the walkers the probe was attached to before
+      long base;
+      long lastFlips;
+
+      Probe (int rank) {
+         this.rank = rank;
+      }
+
+      /**
+       *    Moves the probe to another walker of the same thread
+       *    @param   flips    the flips of the walker so far
+       */
+      void attach (long flips) {
+         base = this.flips - flips;
+      }
+
+      /**
+       *    @return the JFR event of a walk that starts now, or null if no recording
+       *            wants it
+       */
+      WalkEvent begin () {
+         if (!WALK.isEnabled()) return null;
+         WalkEvent event = new WalkEvent();
+         event.begin();
+         return event;
+      }
+
+      /**
+       *    Records the end of a step round
+       *    @param   flips    the flips of the walker so far
+       *    @param   best     the most clauses satisfied during the current walk
+       */
+      void round (long flips, int best) {
+         this.flips = base + flips;
+         if (best > bestTrueCount) bestTrueCount = best;
+      }
+
+      /**
+       *    Records the end of a walk, and commits its JFR event
+       *    @param   event    the walk's event, begun when the walk started, or null
+       *    @param   flips    the flips of the walker so far
+       *    @param   walkFlips   the flips of the walk
+       *    @param   best     the most clauses satisfied during the walk
+       */
+      void walked (WalkEvent event, long flips, long walkFlips, int best) {
+         round (flips, best);
+         ++walks;
+         if (event != null && event.shouldCommit()) {
+            event.rank = rank;
+            event.flips = walkFlips;
+            event.trueCount = best;
+            event.commit();
+         }
+      }
+   }
+
+   /**
+    *    One walk, from its first to its last step round
+    */
+   @Name ("walksat.Walk")
+   @Label ("WalkSAT Walk")
+   @Category ("WalkSAT")
+   @StackTrace (false)
+   static class WalkEvent extends Event {
+      @Label ("Thread Rank")
+      int rank;
+      @Label ("Flips")
+      long flips;
+      @Label ("Best True Count")
+      int trueCount;
+   }
+
+   /**
+    *    One sample of the whole search
+    */
+   @Name ("walksat.Sample")
+   @Label ("WalkSAT Sample")
+   @Category ("WalkSAT")
+   @StackTrace (false)
+   static class SampleEvent extends Event {
+      @Label ("Walks")
+      long walks;
+      @Label ("Flips")
+      long flips;
+      @Label ("Flips per Second")
+      double flipsPerSecond;
+      @Label ("Best True Count")
+      int bestTrueCount;
+      @Label ("Unsatisfied Clauses")
+      int unsat;
+      @Label ("Threads")
+      int threads;
+   }
+
+   /**
+    *    Creates a monitor
+    *    @param   numClauses  the number of clauses searched
+    *    @param   period      the milliseconds between samples
+    *    @param   out         receives the Progress lines
+    */
+   public SolverMonitor (int numClauses, long period, PrintStream out) {
+      this.numClauses = numClauses;
+      this.period = period;
+      this.out = out;
+   }
+
+   /**
+    *    @param   rank  the rank of the walker's thread
+    *    @return a new probe for one walker
+    */
+   public Probe probe (int rank) {
+      Probe p = new Probe (rank);
+      probes.add (p);
+      return p;
+   }
+
+   /**
+    *    Starts sampling, and registers the MBean on the sampling thread, as starting the
+    *    platform MBean server takes a while
+    */
+   public synchronized void start () {
+      sampler = new Thread ("SolverMonitor") {
+         public void run () {
+            register();
+            try {
+               while (true) {
+                  Thread.sleep (period);
+                  sample (true);
+               }
+            } catch (InterruptedException e) {
+               // stopped
+            }
+         }
+      };
+      sampler.setDaemon (true);
+      sampler.start();
+   }
+
+   /**
+    *    Stops sampling, takes a last sample and unregisters the MBean
+    */
+   public void stop () {
+      Thread t;
+      synchronized (this) {
+         t = sampler;
+         sampler = null;
+      }
+      if (t == null) return;
+      t.interrupt();
+      try {
+         t.join();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+      sample (false);
+      try {
+         if (name != null) ManagementFactory.getPlatformMBeanServer().unregisterMBean (name);
+      } catch (Exception e) {
+         // already gone
+      }
+   }
+
+   /**
+    *    Registers the MBean, if the platform allows it
+    */
+   private void register () {
+      try {
+         MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+         ObjectName n = new ObjectName ("walksat:type=Solver,name=run-" + RUNS.incrementAndGet());
+         server.registerMBean (this, n);
+         name = n;
+      } catch (Exception e) {
+         // monitoring must never stop the search
+      }
+   }
+
+   /**
+    *    Reads every probe
+    *    @param   print    true to print a Progress line
+    */
+   synchronized void sample (boolean print) {
+      long now = System.currentTimeMillis();
+      double seconds = Math.max (1L, now - lastTime) / 1000.0;
+      lastTime = now;
+
+      long w = 0L, f = 0L, recent = 0L;
+      int best = -1;
+      threadRates = new double[probes.size()];
+      int i = 0;
+      for (Probe p : probes) {
+         long pf = p.flips;
+         w += p.walks;
+         f += pf;
+         recent += pf - p.lastFlips;
+         threadRates[i++] = (pf - p.lastFlips) / seconds;
+         p.lastFlips = pf;
+         best = Math.max (best, p.bestTrueCount);
+      }
+      walks = w;
+      flips = f;
+      flipsPerSecond = recent / seconds;
+      bestTrueCount = best;
+      int unsat = best < 0 ? numClauses : numClauses - best;
+      history[samples++ % HISTORY] = unsat;
+
+      SampleEvent event = new SampleEvent();
+      if (event.shouldCommit()) {
+         event.walks = walks;
+         event.flips = flips;
+         event.flipsPerSecond = flipsPerSecond;
+         event.bestTrueCount = bestTrueCount;
+         event.unsat = unsat;
+         event.threads = threadRates.length;
+         event.commit();
+      }
+
+      if (print) {
+         StringBuilder rates = new StringBuilder();
+         for (int t = 0; t < threadRates.length; ++t)
+            rates.append (t == 0 ? "" : ",") .append (Math.round (threadRates[t]));
+         out.printf ("Progress: time=%d ms walks=%d flips=%d flips/s=%.0f best=%d/%d unsat=%d" +
+                     " threads=%s%n", now - startTime, walks, flips, flipsPerSecond,
+                     bestTrueCount, numClauses, unsat, rates);
+      }
+   }
+
+   public synchronized long getWalks () {
+      return this.walks;
+   }
+
+   public synchronized long getFlips () {
+      return this.flips;
+   }
+
+   public synchronized double getFlipsPerSecond () {
+      return this.flipsPerSecond;
+   }
+
+   public synchronized int getBestTrueCount () {
+      return this.bestTrueCount;
+   }
+
+   public int getNumClauses () {
+      return this.numClauses;
+   }
+
+   public synchronized int[] getUnsatHistory () {
+      int n = Math.min (samples, HISTORY);
+      int[] result = new int[n];
+      for (int k = 0; k < n; ++k) result[k] = history[(samples - n + k) % HISTORY];
+      return result;
+   }
+
+   public synchronized double[] getThreadFlipsPerSecond () {
+      return this.threadRates.clone();
+   }
+
+   public long getElapsedMillis () {
+      return System.currentTimeMillis() - startTime;
+   }
+}
@@ -0,0 +1,45 @@
+/*
+ *    File: SolverMonitorMBean.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+/**
+ *    Management interface of a running search, as registered with the platform MBean
+ *    server under walksat:type=Solver,name=run-N
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public interface SolverMonitorMBean {
+   public long getWalks ();
+
+   public long getFlips ();
+
+   /**
+    *    @return the flips per second over the last sampling period
+    */
+   public double getFlipsPerSecond ();
+
+   /**
+    *    @return the most clauses satisfied by any assignment so far, or -1
+    */
+   public int getBestTrueCount ();
+
+   public int getNumClauses ();
+
+   /**
+    *    @return the fewest falsified clauses at each of the last samples, oldest first
+    */
+   public int[] getUnsatHistory ();
+
+   /**
+    *    @return the flips per second of each thread over the last sampling period
+    */
+   public double[] getThreadFlipsPerSecond ();
+
+   public long getElapsedMillis ();
+}
@@ -0,0 +1,349 @@
+/*
+ *    File: SolverOptions.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.io.IOException;
+
+/**
+ *    Optional search settings, given as key=value arguments after the input file
+ *
+ *    Options:
+ *       noise=P           probability of a random move (default 0.4)
+ *       noise=adaptive    Hoos-style adaptive noise, starting at 0
+ *       noise=adaptive:P  adaptive noise starting at P
+ *       restart=POLICY    none (default), fixed:C, geometric:C:r or luby:C,
+ *                         with C counted in step rounds
+ *       heuristic=H       variable choice within a falsified clause:
+ *                            walksat           SKC WalkSAT (default)
+ *                            probsat[:F[:cb]]  probSAT, F being poly (default) or exp
+ *                            novelty+[:wp]     Novelty+ with random walk probability wp
+ *       weighting=W       clause weighting: none (default), saps or paws
+ *       preprocess=on|off simplify the formula before the search (default on)
+ *       eval=E            candidate scoring: serial (default), or sliced to score 64
+ *                         candidates at once; weighted walks always score serially
+ *       cache=on|off      load the formula from a binary cache next to the input file,
+ *                         written by the first run (default on), see FormulaCache
+ *       complete=on|off   also run a complete CDCL search on a thread of its own, which
+ *                         can prove the formula unsatisfiable (WalkSATSmp, default off)
+ *       elite=S[:K]       share the K (default 8) best assignments between the threads
+ *                         and start a fraction S of the walks from one of them,
+ *                         perturbed (WalkSATSmp, default 0: every walk starts at random)
+ *       portfolio=P       give the threads different settings and move them to the ones
+ *                         that work best; P is default or a list of configurations,
+ *                         see Portfolio (WalkSATSmp, default off)
+ *       team=T            score each step round's candidates on T threads, to speed up
+ *                         single walks over very large formulas (default 1); weighted
+ *                         walks always score on one thread
+ *       monitor=M         print a Progress line every M milliseconds while the search
+ *                         runs, on for every second or off (default), and serve the
+ *                         same numbers over JMX, see SolverMonitor
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class SolverOptions implements Cloneable {
+   // default noise, the probability of a random move in the original modular scheme
+   static final double DEFAULT_NOISE = 0.4;
+
+   double noise = DEFAULT_NOISE;
+   boolean adaptiveNoise = false;
+   RestartPolicy restart = RestartPolicy.parse ("none");
+
+   // variable selection heuristics
+   static final int WALKSAT = 0;
+   static final int PROBSAT = 1;
+   static final int NOVELTY_PLUS = 2;
+
+   int heuristic = WALKSAT;
+   boolean polynomial = true;
+   double cb = ProbSatHeuristic.POLY_CB;
+   double walkProb = NoveltyPlusHeuristic.WALK_PROB;
+
+   // clause weighting schemes
+   static final int UNWEIGHTED = 0;
+   static final int SAPS = 1;
+   static final int PAWS = 2;
+
+   int weighting = UNWEIGHTED;
+   boolean preprocess = true;
+   boolean slicedEval = false;
+   boolean cache = true;
+   boolean complete = false;
+   double eliteShare = 0.0;
+   int eliteSize = ElitePool.SIZE;
+   String portfolio = null;
+   int team = 1;
+   long monitor = 0L;
+
+   /**
+    *    Parses the options
+    *    @param   args  the command line arguments
+    *    @param   from  the index of the first option
+    *    @return the options
+    *    @throws  IllegalArgumentException if an option is not recognized
+    */
+   public static SolverOptions parse (String[] args, int from) {
+      SolverOptions options = new SolverOptions();
+      for (int i = from; i < args.length; ++i) {
+         int eq = args[i].indexOf ('=');
+         if (eq < 0) throw new IllegalArgumentException ("Expected key=value: " + args[i]);
+         options.set (args[i].substring (0, eq), args[i].substring (eq + 1));
+      }
+      return options;
+   }
+
+   /**
+    *    Sets one option
+    *    @param   key   the name of the option
+    *    @param   value the value of the option
+    */
+   void set (String key, String value) {
+      if (key.equals ("noise")) {
+         if (value.startsWith ("adaptive")) {
+            adaptiveNoise = true;
+            noise = value.equals ("adaptive") ? 0.0 : probability (value.substring (9));
+         } else {
+            adaptiveNoise = false;
+            noise = probability (value);
+         }
+      } else if (key.equals ("restart")) {
+         restart = RestartPolicy.parse (value);
+      } else if (key.equals ("heuristic")) {
+         setHeuristic (value);
+      } else if (key.equals ("weighting")) {
+         if (value.equals ("none")) weighting = UNWEIGHTED;
+         else if (value.equals ("saps")) weighting = SAPS;
+         else if (value.equals ("paws")) weighting = PAWS;
+         else throw new IllegalArgumentException ("Unknown weighting: " + value);
+      } else if (key.equals ("eval")) {
+         if (value.equals ("serial")) slicedEval = false;
+         else if (value.equals ("sliced")) slicedEval = true;
+         else throw new IllegalArgumentException ("Unknown evaluation: " + value);
+      } else if (key.equals ("preprocess")) {
+         preprocess = onOff (value);
+      } else if (key.equals ("cache")) {
+         cache = onOff (value);
+      } else if (key.equals ("complete")) {
+         complete = onOff (value);
+      } else if (key.equals ("team")) {
+         team = Integer.parseInt (value);
+         if (team < 1) throw new IllegalArgumentException ("Bad team size: " + value);
+      } else if (key.equals ("monitor")) {
+         monitor = value.equals ("on") ? SolverMonitor.PERIOD
+                   : value.equals ("off") ? 0L : Long.parseLong (value);
+         if (monitor < 0L) throw new IllegalArgumentException ("Bad monitor period: " + value);
+      } else if (key.equals ("portfolio")) {
+         portfolio = value.equals ("off") ? null : value;
+      } else if (key.equals ("elite")) {
+         String[] parts = value.split (":");
+         if (parts.length > 2) throw new IllegalArgumentException ("Bad elite pool: " + value);
+         eliteShare = probability (parts[0]);
+         eliteSize = parts.length == 2 ? Integer.parseInt (parts[1]) : ElitePool.SIZE;
+         if (eliteSize < 1) throw new IllegalArgumentException ("Bad elite pool size: " + value);
+      } else {
+         throw new IllegalArgumentException ("Unknown option: " + key);
+      }
+   }
+
+   /**
+    *    @return a copy of the options, to be changed without changing these
+    */
+   SolverOptions copy () {
+      try {
+         return (SolverOptions) clone();
+      } catch (CloneNotSupportedException e) {
+         throw new IllegalStateException (e);
+      }
+   }
+
+   /**
+    *    Sets the variable selection heuristic
+    *    @param   value the heuristic, in one of the forms listed above
+    */
+   void setHeuristic (String value) {
+      String[] parts = value.split (":");
+      if (parts[0].equals ("walksat") && parts.length == 1) {
+         heuristic = WALKSAT;
+      } else if (parts[0].equals ("probsat") && parts.length <= 3) {
+         heuristic = PROBSAT;
+         if (parts.length > 1 && !parts[1].equals ("poly") && !parts[1].equals ("exp"))
+            throw new IllegalArgumentException ("Unknown break distribution: " + parts[1]);
+         polynomial = parts.length == 1 || parts[1].equals ("poly");
+         cb = parts.length == 3 ? Double.parseDouble (parts[2])
+                                : polynomial ? ProbSatHeuristic.POLY_CB : ProbSatHeuristic.EXP_CB;
+         if (!(cb > (polynomial ? 0.0 : 1.0)))
+            throw new IllegalArgumentException ("Bad probSAT base: " + cb);
+      } else if (parts[0].equals ("novelty+") && parts.length <= 2) {
+         heuristic = NOVELTY_PLUS;
+         walkProb = parts.length == 2 ? probability (parts[1]) : NoveltyPlusHeuristic.WALK_PROB;
+      } else {
+         throw new IllegalArgumentException ("Unknown heuristic: " + value);
+      }
+   }
+
+   /**
+    *    @return true for on, false for off
+    */
+   static boolean onOff (String value) {
+      if (value.equals ("on")) return true;
+      if (value.equals ("off")) return false;
+      throw new IllegalArgumentException ("Expected on or off: " + value);
+   }
+
+   /**
+    *    @return the value as a probability
+    */
+   static double probability (String value) {
+      double p = Double.parseDouble (value);
+      if (p < 0.0 || p > 1.0) throw new IllegalArgumentException ("Not a probability: " + value);
+      return p;
+   }
+
+   /**
+    *    @return a new noise level for one walker
+    */
+   public Noise newNoise (int numClauses) {
+      return new Noise (noise, adaptiveNoise, numClauses);
+   }
+
+   /**
+    *    @return a new variable selection heuristic for one walker
+    */
+   public Heuristic newHeuristic (Formula formula, Noise noise) {
+      switch (heuristic) {
+         case PROBSAT:
+            return new ProbSatHeuristic (formula, polynomial, cb);
+         case NOVELTY_PLUS:
+            return new NoveltyPlusHeuristic (formula, noise, walkProb);
+         default:
+            return new SkcHeuristic (formula, noise);
+      }
+   }
+
+   /**
+    *    @return the formula in a .dimacs file, read from its cache unless caching is off
+    */
+   public Formula load (String file) throws IOException {
+      return cache ? FormulaCache.load (file) : Formula.load (file);
+   }
+
+   /**
+    *    @return the formula to search, simplified unless preprocessing is off
+    */
+   public Preprocessor preprocess (Formula formula) {
+      return new Preprocessor (formula, preprocess);
+   }
+
+   /**
+    *    @return new clause weights for one walker, or null to search unweighted
+    */
+   public ClauseWeights newWeights (int numClauses) {
+      return weighting == UNWEIGHTED ? null : new ClauseWeights (weighting == PAWS, numClauses);
+   }
+
+   /**
+    *    @return a new bit-sliced candidate evaluator for one walker, or null to score serially
+    */
+   public SlicedEvaluator newEvaluator (Formula formula) {
+      return slicedEval ? new SlicedEvaluator (formula) : null;
+   }
+
+   /**
+    *    @return a complete solver to run beside the walkers, or null to only walk
+    */
+   public CdclSolver newComplete (Formula formula) {
+      return complete ? new CdclSolver (formula) : null;
+   }
+
+   /**
+    *    @return a team scoring the candidates of one walker, or null to score on its thread
+    */
+   public StepTeam newTeam (Formula formula, Noise noise) {
+      return team <= 1 || weighting != UNWEIGHTED ? null
+                                                  : new StepTeam (formula, this, noise, team);
+   }
+
+   /**
+    *    @return the elite pool shared by the threads of a run, or null if walks start at random
+    */
+   public ElitePool newElitePool () {
+      return eliteShare == 0.0 ? null : new ElitePool (eliteSize, eliteShare);
+   }
+
+   /**
+    *    @return the portfolio of configurations for the threads of a run, or null to run
+    *            every thread with these options
+    *    @throws  IllegalArgumentException if a configuration is not valid
+    */
+   public Portfolio newPortfolio (long maxSteps) {
+      return portfolio == null ? null : new Portfolio (portfolio, this, maxSteps);
+   }
+
+   /**
+    *    @return a monitor reporting the progress of a run, not yet started, or null to
+    *            report only at the end
+    */
+   public SolverMonitor newMonitor (int numClauses) {
+      return monitor == 0L ? null : new SolverMonitor (numClauses, monitor, System.out);
+   }
+
+   public RestartPolicy getRestart () {
+      return this.restart;
+   }
+
+   /**
+    *    @return the options as they would be given on the command line
+    */
+   public String toString () {
+      return "noise=" + (adaptiveNoise ? "adaptive:" : "") + noise + " restart=" + restart
+             + " heuristic=" + heuristicString()
+             + " weighting=" + (weighting == SAPS ? "saps" : weighting == PAWS ? "paws" : "none")
+             + " preprocess=" + (preprocess ? "on" : "off")
+             + " eval=" + (slicedEval ? "sliced" : "serial")
+             + " cache=" + (cache ? "on" : "off")
+             + " complete=" + (complete ? "on" : "off")
+             + " elite=" + eliteShare + ":" + eliteSize
+             + " portfolio=" + (portfolio == null ? "off" : portfolio)
+             + " team=" + team
+             + " monitor=" + (monitor == 0L ? "off" : String.valueOf (monitor));
+   }
+
+   /**
+    *    @return the heuristic as it would be given on the command line
+    */
+   String heuristicString () {
+      switch (heuristic) {
+         case PROBSAT:
+            return "probsat:" + (polynomial ? "poly:" : "exp:") + cb;
+         case NOVELTY_PLUS:
+            return "novelty+:" + walkProb;
+         default:
+            return "walksat";
+      }
+   }
+
+   /**
+    *    Prints out a usage statement for the options
+    */
+   public static void usage () {
+      System.err.println("options - any of:");
+      System.err.println("   noise=<P>|adaptive[:<P>] - probability of a random move (default 0.4)");
+      System.err.println("   restart=none|fixed:<C>|geometric:<C>:<r>|luby:<C> - restart policy");
+      System.err.println("   heuristic=walksat|probsat[:poly|exp[:<cb>]]|novelty+[:<wp>] - variable choice");
+      System.err.println("   weighting=none|saps|paws - dynamic clause weighting");
+      System.err.println("   preprocess=on|off - simplify the formula before the search (default on)");
+      System.err.println("   eval=serial|sliced - score candidates one at a time or 64 at once");
+      System.err.println("   cache=on|off - reuse a binary copy of the parsed formula (default on)");
+      System.err.println("   complete=on|off - also run a CDCL search that can prove unsatisfiability");
+      System.err.println("   elite=<S>[:<K>] - start a share S of the walks from the K best assignments");
+      System.err.println("   portfolio=off|default|<conf>;<conf>... - a configuration per thread, each");
+      System.err.println("      a list of <key>=<value>,... settings; steps=<F> scales nStep by F");
+      System.err.println("   team=<T> - score the candidates of each step round on T threads");
+      System.err.println("   monitor=off|on|<M> - print progress every M ms, and serve it over JMX");
+   }
+}
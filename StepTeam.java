@@ -0,0 +1,200 @@
+/*
+ *    File: StepTeam.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import edu.rit.util.Random;
+
+/**
+ *    Scores the candidate flips of one walker's step rounds on several threads, so a
+ *    single long walk over a very large formula can use more than one core
+ *
+ *    Each round's candidates are split evenly among the members of the team. Every
+ *    member draws its share with its own PRNG and heuristic, scores it against the
+ *    walker's clause state, which no one changes during the round, and keeps the best
+ *    of its share; the walker then reduces the members' bests. The calling thread works
+ *    as member 0, and the other members run on a ForkJoinPool shared by all teams, with
+ *    their buffers reused from round to round. The members are plain Runnables counted
+ *    down by the calling thread, which parks until the count reaches 0; joining them as
+ *    ForkJoinTasks instead would let a caller that is itself a worker of another pool,
+ *    as in WalkSATFj, run unrelated tasks in the middle of its walk.
+ *
+ *    The walker applies the chosen flip between rounds and passes it on to flipped(), so
+ *    heuristics that keep per-variable history see every flip.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class StepTeam {
+   // runs the members of every team
+   private static final ForkJoinPool POOL = new ForkJoinPool();
+
+   private final Member[] members;
+   private final AtomicInteger pending = new AtomicInteger();
+   private Thread caller;
+
+   // the best candidate of the last round, over all members
+   private int bestTC;
+   private int bestBC;
+   private int bestMC;
+   private int bestVar;
+
+   /**
+    *    Creates a team
+    *    @param   formula  the formula searched
+    *    @param   options  the search settings, giving each member its heuristic
+    *    @param   noise    the noise level of the walker, shared by the members
+    *    @param   size     the number of members, including the calling thread
+    */
+   public StepTeam (Formula formula, SolverOptions options, Noise noise, int size) {
+      this.members = new Member[size];
+      for (int m = 0; m < size; ++m)
+         members[m] = new Member (this, options.newHeuristic (formula, noise),
+                                  options.newEvaluator (formula));
+   }
+
+   /**
+    *    Draws and scores the candidates of one round
+    *    @param   state    the clause state of the walker
+    *    @param   maxSteps the number of candidates
+    *    @return the number of candidates scored
+    */
+   public long round (ClauseState state, long maxSteps) {
+      int size = members.length;
+      for (int m = 0; m < size; ++m) {
+         members[m].state = state;
+         members[m].share = maxSteps * (m + 1) / size - maxSteps * m / size;
+      }
+      caller = Thread.currentThread();
+      pending.set (size - 1);
+      for (int m = 1; m < size; ++m) POOL.execute (members[m]);
+      members[0].score();
+      while (pending.get() != 0) LockSupport.park (this);
+      for (Member member : members) {
+         if (member.failure != null) throw new IllegalStateException (member.failure);
+      }
+
+      bestTC = -1;
+      bestVar = 0;
+      for (Member member : members) {
+         if (member.bestVar != 0 && Assignment.compare (bestTC, bestBC, bestMC,
+                                                        member.bestTC, member.bestBC,
+                                                        member.bestMC) < 0) {
+            bestTC = member.bestTC;
+            bestBC = member.bestBC;
+            bestMC = member.bestMC;
+            bestVar = member.bestVar;
+         }
+      }
+      return maxSteps;
+   }
+
+   /**
+    *    Passes an accepted flip on to every member's heuristic
+    */
+   public void flipped (int var, long flips) {
+      for (Member member : members) member.heuristic.flipped (var, flips);
+   }
+
+   /**
+    *    Makes every member's heuristic forget the previous walk
+    *    @param   prng  the walker's PRNG, seeding the members' PRNGs on the first walk
+    */
+   public void restart (Random prng) {
+      for (Member member : members) {
+         if (member.prng == null) member.prng = new Random (prng.nextLong());
+         member.heuristic.restart();
+      }
+   }
+
+   public int getBestTrueCount () {
+      return this.bestTC;
+   }
+
+   public int getBestBreakCount () {
+      return this.bestBC;
+   }
+
+   public int getBestMakeCount () {
+      return this.bestMC;
+   }
+
+   /**
+    *    @return the variable flipped by the best candidate of the last round, or 0
+    */
+   public int getBestVar () {
+      return this.bestVar;
+   }
+
+   /**
+    *    One member's share of a round, and its own PRNG, heuristic and buffers
+    */
+   private static class Member implements Runnable {
+      final StepTeam team;
+      Random prng;
+      final Heuristic heuristic;
+      final SlicedEvaluator sliced;
+      final int[] vars = new int[SlicedEvaluator.WIDTH];
+      final int[] breaks = new int[SlicedEvaluator.WIDTH];
+      final int[] makes = new int[SlicedEvaluator.WIDTH];
+      ClauseState state;
+      long share;
+      int bestTC, bestBC, bestMC, bestVar;
+      Throwable failure;
+
+      Member (StepTeam team, Heuristic heuristic, SlicedEvaluator sliced) {
+         this.team = team;
+         this.heuristic = heuristic;
+         this.sliced = sliced;
+      }
+
+      public void run () {
+         try {
+            score();
+         } catch (Throwable t) {
+            failure = t;
+         } finally {
+            if (team.pending.decrementAndGet() == 0) LockSupport.unpark (team.caller);
+         }
+      }
+
+      /**
+       * Draws and scores this member's share of the round
+       */
+      void score () {
+         failure = null;
+         bestTC = -1;
+         bestVar = 0;
+         UnsatPool unsat = state.getUnsat();
+         for (long s = 0; s < share; s += SlicedEvaluator.WIDTH) {
+            int n = (int) Math.min (SlicedEvaluator.WIDTH, share - s);
+            for (int j = 0; j < n; ++j)
+               vars[j] = heuristic.pick (state, unsat.get (prng.nextInt (unsat.size())), prng);
+            if (sliced != null) {
+               sliced.evaluate (state, vars, n, breaks, makes);
+            } else {
+               for (int j = 0; j < n; ++j) {
+                  breaks[j] = state.breakCount (vars[j]);
+                  makes[j] = state.makeCount (vars[j]);
+               }
+            }
+            for (int j = 0; j < n; ++j) {
+               int tc = state.getTrueCount() - breaks[j] + makes[j];
+               if (Assignment.compare (bestTC, bestBC, bestMC, tc, breaks[j], makes[j]) < 0) {
+                  bestTC = tc;
+                  bestBC = breaks[j];
+                  bestMC = makes[j];
+                  bestVar = vars[j];
+               }
+            }
+         }
+      }
+   }
+}
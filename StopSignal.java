@@ -0,0 +1,102 @@
+/*
+ *    File: StopSignal.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+/**
+ *    Shared flag telling every searching thread to stop once the formula is solved
+ *
+ *    Threads poll isStopped() between steps and walks. The first thread to claim the
+ *    signal records its rank, the walk it was on and the time since the signal was
+ *    created; later claims are ignored. A complete search that proves there is no
+ *    solution raises the signal with refute() instead, which records only its time.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class StopSignal {
+   private final long startTime;
+   private volatile boolean stopped;
+   private int rank;
+   private long walk;
+   private long elapsed;
+   private long refuted;
+
+   /**
+    *    Creates a signal that is not raised, starting the clock for time-to-solution
+    */
+   public StopSignal () {
+      this.startTime = System.currentTimeMillis();
+      this.stopped = false;
+      this.rank = -1;
+      this.walk = -1L;
+      this.elapsed = -1L;
+      this.refuted = -1L;
+   }
+
+   /**
+    *    @return true once any thread has claimed the signal
+    */
+   public boolean isStopped () {
+      return stopped;
+   }
+
+   /**
+    *    Raises the signal on behalf of a thread that solved the formula
+    *    @param   rank  the rank of the winning thread
+    *    @param   walk  the index of the winning walk
+    *    @return true if this call was the first to raise the signal
+    */
+   public synchronized boolean claim (int rank, long walk) {
+      if (stopped) return false;
+      this.rank = rank;
+      this.walk = walk;
+      this.elapsed = System.currentTimeMillis() - startTime;
+      this.stopped = true;
+      return true;
+   }
+
+   /**
+    *    Raises the signal on behalf of a search that proved there is no solution
+    *    @return true if this call was the first to raise the signal
+    */
+   public synchronized boolean refute () {
+      if (stopped) return false;
+      this.refuted = System.currentTimeMillis() - startTime;
+      this.stopped = true;
+      return true;
+   }
+
+   /**
+    *    Raises the signal without claiming it, for a solution found elsewhere
+    */
+   public void halt () {
+      stopped = true;
+   }
+
+   public synchronized int getRank () {
+      return this.rank;
+   }
+
+   public synchronized long getWalk () {
+      return this.walk;
+   }
+
+   /**
+    *    @return the milliseconds from creation to the winning claim, or -1 if unclaimed
+    */
+   public synchronized long getElapsed () {
+      return this.elapsed;
+   }
+
+   /**
+    *    @return the milliseconds from creation to the proof of unsatisfiability, or -1
+    */
+   public synchronized long getRefuted () {
+      return this.refuted;
+   }
+}
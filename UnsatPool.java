@@ -0,0 +1,83 @@
+/*
+ *    File: UnsatPool.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.util.Arrays;
+
+/**
+ *    Dense set of the clauses currently falsified by a truth assignment
+ *
+ *    Members are kept packed at the front of an array, with a position map from clause
+ *    index to slot, so membership changes and uniform random selection are constant time.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class UnsatPool {
+   private int[] members;
+   private int[] position;
+   private int size;
+
+   /**
+    *    Creates an empty pool
+    *    @param   numClauses  the number of clauses in the formula
+    */
+   public UnsatPool (int numClauses) {
+      this.members = new int[numClauses];
+      this.position = new int[numClauses];
+      this.size = 0;
+   }
+
+   /**
+    *    Appends a clause that has just been broken
+    *    @param   clause   the index of the clause in the formula
+    */
+   public void add (int clause) {
+      position[clause] = size;
+      members[size++] = clause;
+   }
+
+   /**
+    *    Removes a clause that has just been satisfied, moving the last member into its slot
+    *    @param   clause   the index of the clause in the formula
+    */
+   public void remove (int clause) {
+      int slot = position[clause];
+      int last = members[--size];
+      members[slot] = last;
+      position[last] = slot;
+   }
+
+   /**
+    *    @param   i  a slot in [0, size())
+    *    @return the clause stored in the slot
+    */
+   public int get (int i) {
+      return members[i];
+   }
+
+   public int size () {
+      return this.size;
+   }
+
+   /**
+    *    Makes room for clauses appended to the formula
+    *    @param   numClauses  the number of clauses in the longer formula
+    */
+   public void grow (int numClauses) {
+      members = Arrays.copyOf (members, numClauses);
+      position = Arrays.copyOf (position, numClauses);
+   }
+
+   /**
+    *    Empties the pool
+    */
+   public void clear () {
+      this.size = 0;
+   }
+}
@@ -0,0 +1,216 @@
+/*
+ *    File: WalkSATBatch.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Solves many DIMACS files in one JVM, so startup and JIT warm-up are paid once
+ *
+ * The instances are read from a directory (every .cnf and .dimacs file in it, in name
+ * order) or from a manifest (one path per line, relative to the manifest; blank lines
+ * and lines starting with # are ignored). Up to J instances are searched at once, each
+ * as a WalkSATFj run on one shared ForkJoinPool, with a budget of N walks and, if given,
+ * T milliseconds. One line is printed per instance as soon as it finishes:
+ *
+ *    Result: file=F status=S true=C/M walks=W flips=F ... (the instance's Stats fields)
+ *
+ * where S is SAT, UNSAT (proven by preprocessing), TIMEOUT, UNKNOWN (walks used up) or
+ * ERROR. A summary line follows the last instance.
+ *
+ * Usage: java WalkSATBatch N nStep seed dir|manifest [timeout=T] [jobs=J] [option...]
+ *        N - number of iterations to perform per instance
+ *        nStep - number of steps per iteration
+ *        seed - long seed for PRNG
+ *        dir|manifest - directory of instances, or file listing them
+ *        T - milliseconds allowed per instance (default 0, no limit)
+ *        J - instances searched at once (default: the number of cores)
+ *        option - key=value search settings, see SolverOptions
+ *
+ * @author Connor Adsit
+ * @author Kevin Bradley
+ * @author Christian Heinrich
+ */
+public class WalkSATBatch {
+   /**
+    * Main Function:
+    * @param   args  the walk budget, the instances and the search settings
+    */
+   public static void main (String[] args) {
+      try {
+         // parse command line args
+         if (args.length < 4)
+            usage();
+         long maxIter = Long.parseLong(args[0]);
+         long maxSteps = Long.parseLong(args[1]);
+         if (maxIter < 0 || maxSteps < 0) {
+            throw new NumberFormatException();
+         }
+         long seed = Long.parseLong(args[2]);
+         long timeout = 0L;
+         int jobs = Runtime.getRuntime().availableProcessors();
+         List<String> rest = new ArrayList<String>();
+         for (int i = 4; i < args.length; ++i) {
+            if (args[i].startsWith ("timeout=")) timeout = Long.parseLong (args[i].substring (8));
+            else if (args[i].startsWith ("jobs=")) jobs = Integer.parseInt (args[i].substring (5));
+            else rest.add (args[i]);
+         }
+         if (timeout < 0 || jobs < 1) throw new NumberFormatException();
+         SolverOptions options = SolverOptions.parse (rest.toArray (new String[0]), 0);
+
+         List<File> instances = instances (new File (args[3]));
+         System.out.println ("Options: " + options);
+         run (instances, maxIter, maxSteps, seed, timeout, jobs, options);
+
+      // handle any errors
+      } catch (IllegalArgumentException iae) {
+         // also catches NumberFormatException
+         usage();
+      } catch (IOException ioe) {
+         System.err.println("Error: " + ioe.getMessage());
+      } catch (Exception e) {
+         e.printStackTrace();
+         System.err.println(e.getMessage());
+      }
+   }
+
+   /**
+    * Searches the instances, printing a line as each one finishes
+    */
+   private static void run (List<File> instances, long maxIter, long maxSteps, long seed,
+                            long timeout, int jobs, SolverOptions options)
+         throws InterruptedException {
+      long start = System.currentTimeMillis();
+      ForkJoinPool pool = new ForkJoinPool();
+      final Semaphore slots = new Semaphore (jobs);
+      final AtomicInteger[] counts = new AtomicInteger[Status.values().length];
+      for (int i = 0; i < counts.length; ++i) counts[i] = new AtomicInteger();
+      List<CompletableFuture<?>> pending = new ArrayList<CompletableFuture<?>>();
+
+      for (final File file : instances) {
+         slots.acquire();
+         WalkSATFj solver;
+         try {
+            solver = new WalkSATFj (options.load (file.getPath()), maxSteps, options, pool);
+         } catch (Exception e) {
+            report (file, Status.ERROR, "message=" + e, counts);
+            slots.release();
+            continue;
+         }
+
+         // preprocessing alone can settle an instance
+         if (solver.getPreprocessor().isUnsatisfiable()) {
+            report (file, Status.UNSAT, "", counts);
+            slots.release();
+            continue;
+         }
+
+         CompletableFuture<WalkSATFj.Result> future = solver.solve (maxIter, seed, timeout);
+         pending.add (future.whenComplete (new BiConsumer<WalkSATFj.Result, Throwable>() {
+            public void accept (WalkSATFj.Result r, Throwable t) {
+               if (t != null) {
+                  report (file, Status.ERROR, "message=" + t, counts);
+               } else {
+                  Status status = r.isSolved() ? Status.SAT
+                                 : r.isTimedOut() ? Status.TIMEOUT : Status.UNKNOWN;
+                  report (file, status, String.format ("true=%d/%d %s", r.getTrueCount(),
+                          r.getNumClauses(), r.getStats().substring ("Stats: ".length())),
+                          counts);
+               }
+               slots.release();
+            }
+         }));
+      }
+
+      for (CompletableFuture<?> f : pending) {
+         try {
+            f.join();
+         } catch (RuntimeException e) {
+            // already reported
+         }
+      }
+      pool.shutdown();
+
+      StringBuilder summary = new StringBuilder ("Batch: instances=" + instances.size());
+      for (Status s : Status.values())
+         summary.append (' ') .append (s.name().toLowerCase()) .append ('=') .append (counts[s.ordinal()]);
+      summary.append (" time=") .append (System.currentTimeMillis() - start) .append (" ms");
+      System.out.println (summary);
+   }
+
+   /**
+    * The outcome of one instance
+    */
+   private enum Status { SAT, UNSAT, TIMEOUT, UNKNOWN, ERROR }
+
+   /**
+    * Prints the result line of one instance
+    */
+   private static void report (File file, Status status, String detail, AtomicInteger[] counts) {
+      counts[status.ordinal()].incrementAndGet();
+      System.out.println ("Result: file=" + file.getPath() + " status=" + status
+                          + (detail.isEmpty() ? "" : " " + detail));
+   }
+
+   /**
+    * Lists the instances of a batch
+    * @param   source   a directory of instances, or a manifest listing them
+    * @return the instance files
+    */
+   static List<File> instances (File source) throws IOException {
+      List<File> result = new ArrayList<File>();
+      if (source.isDirectory()) {
+         File[] files = source.listFiles();
+         Arrays.sort (files);
+         for (File f : files) {
+            String name = f.getName();
+            if (f.isFile() && (name.endsWith (".cnf") || name.endsWith (".dimacs"))) result.add (f);
+         }
+         return result;
+      }
+
+      BufferedReader in = new BufferedReader (new FileReader (source));
+      try {
+         File dir = source.getAbsoluteFile().getParentFile();
+         for (String line = in.readLine(); line != null; line = in.readLine()) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith ("#")) continue;
+            File f = new File (line);
+            result.add (f.isAbsolute() ? f : new File (dir, line));
+         }
+      } finally {
+         in.close();
+      }
+      return result;
+   }
+
+   /**
+    * Prints out a usage statement
+    */
+   private static void usage() {
+      System.err.println("Usage: java WalkSATBatch <N> <nStep> <seed> <dir>|<manifest> [timeout=<T>] [jobs=<J>] [<option>...]");
+      System.err.println("N - long number of iterations per instance");
+      System.err.println("nStep - long number of assignments to generate per iteration");
+      System.err.println("seed - long seed for PRNG");
+      System.err.println("dir|manifest - directory of .cnf/.dimacs files, or a file listing them");
+      System.err.println("T - milliseconds allowed per instance (default 0, no limit)");
+      System.err.println("J - instances searched at once (default: the number of cores)");
+      SolverOptions.usage();
+      System.exit(0);
+   }
+}
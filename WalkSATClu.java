@@ -0,0 +1,193 @@
+/*
+ *    File: WalkSATClu.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import edu.rit.pj2.Job;
+import edu.rit.pj2.LongLoop;
+import edu.rit.pj2.Task;
+import edu.rit.util.Random;
+
+/**
+ * Performs a local stochastic search upon a given boolean equation across
+ * the nodes of a cluster
+ *
+ * The N walks are split evenly across K worker tasks, each searching its share
+ * with every core of its node and its own region of the seed space. Each worker
+ * puts its best truth assignment into tuple space, where a final task reduces
+ * them. The first worker to satisfy the formula puts a SolvedTuple, which stops
+ * the search in every other worker. A formula that preprocessing proves
+ * unsatisfiable is not walked at all, and the job reports it as such.
+ *
+ * Usage: java pj2 workers=K WalkSATClu N nStep seed inputFile.cnf [option...]
+ *        K - number of worker tasks
+ *        N - number of iterations to perform, in total
+ *        nStep - number of steps per iteration
+ *        seed - long seed for PRNG
+ *        inputFile.cnf - filepath for input, in CNF form, readable by every node
+ *        option - key=value search settings, see SolverOptions
+ *
+ * To stand in for a cluster on one Linux box, run a pj2 Tracker and a Launcher
+ * on localhost; every worker task is then started in its own local JVM.
+ *
+ * @author Connor Adsit
+ * @author Kevin Bradley
+ * @author Christian Heinrich
+ */
+public class WalkSATClu extends Job {
+   // distance between the seeds of successive workers; walks of a worker's
+   // threads use seeds worker*SEED_STRIDE + seed + rank
+   static final long SEED_STRIDE = 1000003L;
+
+   /**
+    * Job main program
+    * @param   args  contains the number of iterations to perform,
+    *                the number of steps, the seed and the input file
+    */
+   public void main (String[] args) {
+      // parse command line args
+      if (args.length < 4) usage();
+      try {
+         long maxIter = Long.parseLong(args[0]);
+         long maxSteps = Long.parseLong(args[1]);
+         Long.parseLong(args[2]);
+         SolverOptions.parse (args, 4);
+         if (maxIter < 0 || maxSteps < 0) usage();
+      } catch (IllegalArgumentException iae) {
+         usage();
+      }
+      int K = workers();
+
+      // set up a task group of K worker tasks
+      rule() .task (K, WorkerTask.class) .args (args);
+
+      // set up reduction task
+      rule() .atFinish() .task (ReduceTask.class) .args ("" + K) .runInJobProcess();
+   }
+
+   /**
+    * Prints out a usage statement
+    */
+   private static void usage() {
+      System.err.println("Usage: java pj2 workers=<K> WalkSATClu <N> <nStep> <seed> <file> [<option>...]");
+      System.err.println("K - number of worker tasks");
+      System.err.println("N - long number of iterations, split across the workers");
+      System.err.println("nStep - long number of assignments to generate per iteration");
+      System.err.println("seed - long seed for PRNG");
+      System.err.println("file - input file of CNF equation");
+      SolverOptions.usage();
+      System.exit(0);
+   }
+
+   /**
+    * Searches one worker's share of the walks with every core of its node
+    */
+   private static class WorkerTask extends Task {
+      long seed;
+      Assignment best;
+
+      /**
+       * Worker task main program
+       * @param   args  the job's command line arguments
+       */
+      public void main (String[] args) throws Exception {
+         long maxIter = Long.parseLong(args[0]);
+         final long maxSteps = Long.parseLong(args[1]);
+         final int rank = taskRank();
+         seed = Long.parseLong(args[2]) + rank * SEED_STRIDE;
+         final SolverOptions options = SolverOptions.parse (args, 4);
+
+         // this worker's share of the walks
+         long lb = maxIter * rank / groupSize() + 1;
+         long ub = maxIter * (rank + 1) / groupSize();
+
+         final Preprocessor pre = options.preprocess (options.load (args[3]));
+         final Formula formula = pre.getFormula();
+         final int numClauses = formula.getNumClauses();
+         best = new Assignment ();
+         final StopSignal stop = new StopSignal ();
+
+         // preprocessing alone can settle the formula, possibly with an empty clause
+         if (pre.isUnsatisfiable()) {
+            stop.refute();
+            putTuple (new AssignmentTuple (rank, pre, best, stop));
+            return;
+         }
+
+         // stop as soon as any worker announces a solution
+         Thread watcher = new Thread() {
+            public void run() {
+               try {
+                  readTuple (new SolvedTuple());
+                  stop.halt();
+               } catch (Exception e) {}
+            }
+         };
+         watcher.setDaemon (true);
+         watcher.start();
+
+         parallelFor (lb, ub) .schedule (dynamic) .exec (new LongLoop() {
+            Random prng;
+            Assignment thrBest;
+            Walker walker;
+
+            public void start () {
+               prng = new Random (seed + rank());
+               thrBest = threadLocal (best);
+               walker = new Walker (formula, maxSteps, stop, options);
+            }
+
+            public void run (long n) throws Exception {
+               if (stop.isStopped()) return;
+               if (walker.walk (prng, thrBest) == numClauses && stop.claim (rank(), n))
+                  putTuple (new SolvedTuple (rank));
+            }
+         });
+
+         putTuple (new AssignmentTuple (rank, pre, best, stop));
+      }
+   }
+
+   /**
+    * Reduces the workers' assignments and prints the result
+    */
+   private static class ReduceTask extends Task {
+      /**
+       * Reduce task main program
+       * @param   args  the number of worker tasks
+       */
+      public void main (String[] args) throws Exception {
+         int K = Integer.parseInt(args[0]);
+         Assignment best = new Assignment ();
+         AssignmentTuple winner = null;
+         AssignmentTuple any = null;
+         boolean refuted = false;
+         for (int k = 0; k < K; ++k) {
+            AssignmentTuple t = takeTuple (new AssignmentTuple());
+            best.reduce (t.toAssignment());
+            any = t;
+            if (t.walk >= 0 && (winner == null || t.elapsed < winner.elapsed)) winner = t;
+            refuted |= t.refuted >= 0;
+         }
+
+         // print out results
+         if (refuted) {
+            System.out.println ("No solution: proven unsatisfiable by preprocessing");
+            return;
+         }
+         if (any.numClauses != best.getTrueCount()) System.out.println("No solution.");
+         else {
+            System.out.println ("Solution found: ");
+            System.out.printf ("\tFound by worker %d, thread %d on walk %d after %d ms\n",
+                               winner.worker, winner.thread, winner.walk, winner.elapsed);
+         }
+         System.out.println("\tTruth assignment: ");
+         for (int i = 0; i < any.numVars; ++i) {
+            System.out.printf("\t\t%d -> %s\n", i + 1, BitVector.get(i+1, best.getAssign()));
+         }
+      }
+   }
+}
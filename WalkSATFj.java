@@ -0,0 +1,428 @@
+/*
+ *    File: WalkSATFj.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import edu.rit.util.Random;
+
+/**
+ * Performs the WalkSATSmp search on a java.util.concurrent ForkJoinPool, for use as a
+ * library from any JVM program
+ *
+ * The walks are split recursively over the pool, so idle workers steal ranges of walks
+ * from busy ones. Every worker thread keeps one walker, one PRNG and one best
+ * assignment for the whole run; the workers' bests are reduced when the run ends. The
+ * first walk to satisfy the formula raises a stop signal that ends every other walk, as
+ * do cancelling the returned future and running out of the run's time budget.
+ *
+ *    WalkSATFj solver = new WalkSATFj (Formula.load (file), maxSteps, options);
+ *    WalkSATFj.Result r = solver.solve (maxIter, seed).get();
+ *
+ * The pj2 library still supplies the PRNG and the Assignment class, but no pj2 Task or
+ * runtime is needed.
+ *
+ * Usage: java WalkSATFj N nStep seed inputFile.cnf [option...]
+ *        N - number of iterations to perform
+ *        nStep - number of steps per iteration
+ *        seed - long seed for PRNG
+ *        inputFile.cnf - filepath for input, in CNF form
+ *        option - key=value search settings, see SolverOptions
+ *
+ * @author Connor Adsit
+ * @author Kevin Bradley
+ * @author Christian Heinrich
+ */
+public class WalkSATFj {
+   // ranges are split until each holds about 1/GRAIN_SPLIT of a worker's share
+   static final int GRAIN_SPLIT = 16;
+
+   // ends the runs that exceed their time budget
+   private static final ScheduledExecutorService TIMER =
+      new ScheduledThreadPoolExecutor (1, new ThreadFactory() {
+         public Thread newThread (Runnable r) {
+            Thread t = new Thread (r, "WalkSATFj-timer");
+            t.setDaemon (true);
+            return t;
+         }
+      });
+
+   private final Preprocessor pre;
+   private final Formula formula;
+   private final long maxSteps;
+   private final SolverOptions options;
+   private final ForkJoinPool pool;
+
+   /**
+    * The outcome of a run
+    */
+   public static class Result {
+      private final boolean solved;
+      private final long[] assign;
+      private final int trueCount;
+      private final int numClauses;
+      private final int numVars;
+      private final int rank;
+      private final long walk;
+      private final boolean timedOut;
+      private final String stats;
+
+      Result (boolean solved, long[] assign, int trueCount, int numClauses, int numVars,
+              StopSignal stop, boolean timedOut, String stats) {
+         this.solved = solved;
+         this.timedOut = timedOut;
+         this.assign = assign;
+         this.trueCount = trueCount;
+         this.numClauses = numClauses;
+         this.numVars = numVars;
+         this.rank = stop.getRank();
+         this.walk = stop.getWalk();
+         this.stats = stats;
+      }
+
+      /**
+       * @return true if the best assignment satisfies the formula
+       */
+      public boolean isSolved () {
+         return this.solved;
+      }
+
+      /**
+       * @param   var   a variable of the formula as parsed
+       * @return the value of the variable in the best assignment
+       */
+      public boolean valueOf (int var) {
+         return BitVector.get (var, assign);
+      }
+
+      /**
+       * @return the best assignment over the variables of the formula as parsed
+       */
+      public long[] getAssign () {
+         return this.assign;
+      }
+
+      /**
+       * @return the clauses of the searched formula satisfied by the best assignment
+       */
+      public int getTrueCount () {
+         return this.trueCount;
+      }
+
+      public int getNumClauses () {
+         return this.numClauses;
+      }
+
+      public int getNumVars () {
+         return this.numVars;
+      }
+
+      /**
+       * @return the worker that solved the formula, or -1
+       */
+      public int getRank () {
+         return this.rank;
+      }
+
+      /**
+       * @return the walk that solved the formula, or -1
+       */
+      public long getWalk () {
+         return this.walk;
+      }
+
+      /**
+       * @return true if the run was ended by its time budget
+       */
+      public boolean isTimedOut () {
+         return this.timedOut;
+      }
+
+      /**
+       * @return the run's Stats line
+       */
+      public String getStats () {
+         return this.stats;
+      }
+   }
+
+   /**
+    * Creates a solver on the common pool
+    * @param   formula  the formula as parsed
+    * @param   maxSteps the number of candidate flips generated per step
+    * @param   options  the search settings
+    */
+   public WalkSATFj (Formula formula, long maxSteps, SolverOptions options) {
+      this (formula, maxSteps, options, ForkJoinPool.commonPool());
+   }
+
+   /**
+    * Creates a solver
+    * @param   formula  the formula as parsed
+    * @param   maxSteps the number of candidate flips generated per step
+    * @param   options  the search settings
+    * @param   pool     the pool to run the walks on
+    */
+   public WalkSATFj (Formula formula, long maxSteps, SolverOptions options, ForkJoinPool pool) {
+      this.pre = options.preprocess (formula);
+      this.formula = pre.getFormula();
+      this.maxSteps = maxSteps;
+      this.options = options;
+      this.pool = pool;
+   }
+
+   /**
+    * @return the preprocessing of the formula
+    */
+   public Preprocessor getPreprocessor () {
+      return this.pre;
+   }
+
+   /**
+    * Starts a run
+    * @param   maxIter  the number of walks to perform
+    * @param   seed     the seed of the workers' PRNGs
+    * @return the result of the run, completed when every walk has ended; cancelling it
+    *         stops the walks
+    */
+   public CompletableFuture<Result> solve (long maxIter, long seed) {
+      return solve (maxIter, seed, 0L);
+   }
+
+   /**
+    * Starts a run with a time budget
+    * @param   maxIter  the number of walks to perform
+    * @param   seed     the seed of the workers' PRNGs
+    * @param   millis   the time after which the walks are stopped, or 0 for no limit
+    * @return the result of the run, completed when every walk has ended; cancelling it
+    *         stops the walks
+    */
+   public CompletableFuture<Result> solve (final long maxIter, final long seed, long millis) {
+      final Run run = new Run (seed);
+      final CompletableFuture<Result> future = new CompletableFuture<Result>();
+      // an unsatisfiable formula, possibly with an empty clause, is not walked
+      if (pre.isUnsatisfiable()) {
+         run.stop.refute();
+         future.complete (run.result());
+         return future;
+      }
+      if (run.monitor != null) run.monitor.start();
+      final ScheduledFuture<?> timer = millis <= 0L ? null : TIMER.schedule (new Runnable() {
+         public void run () {
+            run.timedOut = true;
+            run.stop.halt();
+         }
+      }, millis, TimeUnit.MILLISECONDS);
+      future.whenComplete (new BiConsumer<Result, Throwable>() {
+         public void accept (Result r, Throwable t) {
+            run.stop.halt();
+            if (timer != null) timer.cancel (false);
+            if (run.monitor != null) run.monitor.stop();
+         }
+      });
+      long grain = Math.max (1L, maxIter / ((long) pool.getParallelism() * GRAIN_SPLIT));
+      final Walks root = new Walks (run, 1, maxIter, grain);
+      pool.execute (new Runnable() {
+         public void run () {
+            try {
+               root.invoke();
+               future.complete (run.result());
+            } catch (Throwable t) {
+               future.completeExceptionally (t);
+            }
+         }
+      });
+      return future;
+   }
+
+   /**
+    * The state shared by the workers of one run
+    */
+   private class Run {
+      final long seed;
+      final StopSignal stop = new StopSignal();
+      final RunStats stats = new RunStats();
+      final AtomicInteger ranks = new AtomicInteger();
+      final ConcurrentLinkedQueue<Worker> workers = new ConcurrentLinkedQueue<Worker>();
+      // by pool index rather than in a ThreadLocal, which would keep every run's workers
+      // reachable from the pool's threads, as they outlive the run
+      final ConcurrentHashMap<Integer, Worker> byIndex = new ConcurrentHashMap<Integer, Worker>();
+      final SolverMonitor monitor = options.newMonitor (formula.getNumClauses());
+      volatile boolean timedOut;
+
+      Run (long seed) {
+         this.seed = seed;
+      }
+
+      /**
+       * @return the calling pool thread's worker, created on its first range
+       */
+      Worker worker () {
+         Integer index = ((ForkJoinWorkerThread) Thread.currentThread()).getPoolIndex();
+         Worker w = byIndex.get (index);
+         if (w == null) {
+            w = new Worker (ranks.getAndIncrement(), this);
+            byIndex.put (index, w);
+            workers.add (w);
+         }
+         return w;
+      }
+
+      /**
+       * Reduces the workers' bests, once every range has finished
+       */
+      Result result () {
+         Assignment best = new Assignment();
+         for (Worker w : workers) {
+            best.reduce (w.best);
+            stats.add (w.walks, w.walker);
+         }
+         // a run that ended before its first walk has no assignment
+         long[] assign = pre.expand (best.getAssign().length == 0
+                                     ? new long[BitVector.words (formula.getNumVars() + 1)]
+                                     : best.getAssign());
+         int numClauses = formula.getNumClauses();
+         return new Result (best.getTrueCount() == numClauses, assign, best.getTrueCount(),
+                            numClauses, pre.getOriginal().getNumVars(), stop, timedOut,
+                            stats.format (stop));
+      }
+   }
+
+   /**
+    * One worker thread's walker, PRNG and best assignment
+    */
+   private class Worker {
+      final int rank;
+      final Random prng;
+      final Walker walker;
+      final Assignment best = new Assignment();
+      long walks;
+
+      Worker (int rank, Run run) {
+         this.rank = rank;
+         this.prng = new Random (run.seed + rank);
+         this.walker = new Walker (formula, maxSteps, run.stop, options);
+         if (run.monitor != null) walker.setProbe (run.monitor.probe (rank));
+      }
+   }
+
+   /**
+    * A range of walks, split in halves until it is no larger than the grain
+    */
+   private class Walks extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+
+      final Run run;
+      final long lb;
+      final long ub;
+      final long grain;
+
+      Walks (Run run, long lb, long ub, long grain) {
+         this.run = run;
+         this.lb = lb;
+         this.ub = ub;
+         this.grain = grain;
+      }
+
+      protected void compute () {
+         if (run.stop.isStopped()) return;
+         if (ub - lb + 1 > grain) {
+            long mid = lb + (ub - lb) / 2;
+            invokeAll (new Walks (run, lb, mid, grain), new Walks (run, mid + 1, ub, grain));
+            return;
+         }
+         Worker w = run.worker();
+         int numClauses = formula.getNumClauses();
+         for (long n = lb; n <= ub; ++n) {
+            // skip the remaining walks once any worker has a solution
+            if (run.stop.isStopped()) return;
+            if (w.walker.walk (w.prng, w.best) == numClauses)
+               run.stop.claim (w.rank, n);
+            ++w.walks;
+         }
+      }
+   }
+
+   /**
+    * Main Function:
+    * @param   args  contains the number of iterations to perform
+    *                and the path to the input file
+    */
+   public static void main (String[] args) {
+      try {
+         // parse command line args
+         if (args.length < 4)
+            usage();
+         long maxIter = Long.parseLong(args[0]);
+         long maxSteps = Long.parseLong(args[1]);
+         if (maxIter < 0 || maxSteps < 0) {
+            throw new NumberFormatException();
+         }
+         long seed = Long.parseLong(args[2]);
+         SolverOptions options = SolverOptions.parse (args, 4);
+
+         Formula parsed = options.load (args[3]);
+         System.out.println ("Loaded " + parsed);
+         WalkSATFj solver = new WalkSATFj (parsed, maxSteps, options);
+         System.out.println (solver.getPreprocessor());
+         System.out.println ("Options: " + options);
+
+         // preprocessing alone can settle the formula, with a stats line of no walks
+         if (solver.getPreprocessor().isUnsatisfiable()) {
+            System.out.println ("No solution: proven unsatisfiable by preprocessing");
+            System.out.println (solver.solve (maxIter, seed).get().getStats());
+            return;
+         }
+         Result r = solver.solve (maxIter, seed).get();
+
+         // print out results
+         if (!r.isSolved()) System.out.println("No solution.");
+         else System.out.println ("Solution found: ");
+         System.out.println("\tTruth assignment: ");
+         for (int i = 0; i < r.getNumVars(); ++i) {
+            System.out.printf("\t\t%d -> %s\n", i + 1, r.valueOf (i + 1));
+         }
+         System.out.println(r.getStats());
+
+      // handle any errors
+      } catch (IllegalArgumentException iae) {
+         // also catches NumberFormatException
+         usage();
+      } catch (FileNotFoundException fnfe) {
+         System.err.println("Error: File " + args[3] + " does not exist.");
+      } catch (Exception e) {
+         e.printStackTrace();
+         System.err.println(e.getMessage());
+      }
+   }
+
+   /**
+    * Prints out a usage statement
+    */
+   private static void usage() {
+      System.err.println("Usage: java WalkSATFj <N> <nStep> <seed> <file> [<option>...]");
+      System.err.println("N - long number of iterations");
+      System.err.println("nStep - long number of assignments to generate per iteration");
+      System.err.println("seed - long seed for PRNG");
+      System.err.println("file - input file of CNF equation");
+      SolverOptions.usage();
+      System.exit(0);
+   }
+}
@@ -9,27 +9,42 @@
 import edu.rit.pj2.LongLoop;
 import java.lang.Math;
 import edu.rit.pj2.Task;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
 import edu.rit.util.Random;
 
 /**
  * Performs a local stochastic search upon a given boolean equation
+ *
+ * With complete=on a CDCL search runs on one more thread beside the walkers. Whichever
+ * answers first ends the run: a model from either search, or a proof from the complete
+ * search that there is none. When the walks run out first, the complete search is
+ * stopped as well.
+ *
+ * With elite=S the threads publish their best assignments to a shared ElitePool as they
+ * improve, and a share S of the walks starts from a perturbed member of the pool.
+ *
+ * With portfolio=P each thread searches with its own configuration of the Portfolio,
+ * and threads move from the configurations that do poorly to those that do well.
+ *
+ * With monitor=M a SolverMonitor prints the progress of the search every M ms, with the
+ * flips/s of each thread, and serves it over JMX and JFR while the walks run.
  * 
- * Usage: java pj2 WalkSATSmp N nStep seed inputFile.cnf
+ * Usage: java pj2 WalkSATSmp N nStep seed inputFile.cnf [option...]
  *        N - number of iterations to perform
  *        nStep - number of steps per iteration
  *        seed - long seed for PRNG
  *        inputFile.cnf - filepath for input, in CNF form
+ *        option - key=value search settings, see SolverOptions
  * 
- * Input file format:
-      first line: ignored
- *    second line: V C
+ * Input file format (DIMACS):
+ *    any number of lines starting with c: ignored (use for comments)
+ *    problem line: p cnf V C
  *       V - total number of variables
  *       C - total number of clauses
- *    next C lines:
- *       variable numbers delimited by a space, lines ending in 0
+ *    then C clauses:
+ *       variable numbers delimited by whitespace, each clause ending in 0
+ *       (clauses may span or share lines)
  *
  * @author Connor Adsit
  * @author Kevin Bradley
@@ -39,16 +54,12 @@ public class WalkSATSmp extends edu.rit.pj2.Task {
    int numVars;
    int numClauses;
    Assignment best;
-   int[][] equation;
+   Formula formula;
+   Preprocessor pre;
    long seed;
    long maxIter;
    long maxSteps;
-   Scanner sc;
-
-   // debug and probability variables
-   //    (probability done by modular arithmatic of random numbers)
-   private final int P_MOD = 5;
-   private final int P_REM = 0;
+   SolverOptions options;
 
    /**
     * Main Function:
@@ -58,7 +69,7 @@ public class WalkSATSmp extends edu.rit.pj2.Task {
    public void main (String[] args) {
       try {
          // parse command line args
-         if (args.length != 4)
+         if (args.length < 4)
             usage();
          maxIter = Long.parseLong(args[0]);
          maxSteps = Long.parseLong(args[1]);
@@ -66,87 +77,180 @@ public class WalkSATSmp extends edu.rit.pj2.Task {
             throw new NumberFormatException();
          }
          seed = Long.parseLong(args[2]);
+         options = SolverOptions.parse (args, 4);
 
          // read in input and print out representation
          construct(args[3]);
+         System.out.println ("Options: " + options);
 
-         // initialize best of the best
+         // preprocessing alone can settle the formula, with a stats line of no walks
+         if (pre.isUnsatisfiable()) {
+            StopSignal proof = new StopSignal ();
+            proof.refute();
+            System.out.println ("No solution: proven unsatisfiable by preprocessing");
+            System.out.println (new RunStats ().format (proof));
+            return;
+         }
+
+         // initialize best of the best, and the signal that ends the search
          best = new Assignment ();
+         final StopSignal stop = new StopSignal ();
+         final RunStats stats = new RunStats ();
 
-         // perform maxIter walks
-         parallelFor (1,maxIter) .schedule (dynamic) .exec (new LongLoop() {
-            Random prng;
-            Assignment walkBest;
-            Assignment stepBest;
-            Assignment thrBest;
+         // the complete search claims the signal with rank -1 once it finds a model, and
+         // refutes it once it proves there is none
+         final CdclSolver complete = options.newComplete (formula);
+         Thread prover = null;
+         if (complete != null) {
+            prover = new Thread() {
+               public void run() {
+                  int status = complete.solve (stop);
+                  if (status == CdclSolver.SAT) stop.claim (-1, -1L);
+                  else if (status == CdclSolver.UNSAT) stop.refute();
+               }
+            };
+            prover.setDaemon (true);
+            prover.start();
+         }
 
-            public void start () {
-               prng = new Random (seed + rank());
-               thrBest = threadLocal (best);
-               walkBest = new Assignment ();
-            }
+         final ElitePool elite = options.newElitePool();
+         final Portfolio portfolio = options.newPortfolio (maxSteps);
+         final SolverMonitor monitor = options.newMonitor (numClauses);
+         if (monitor != null) monitor.start();
 
-            public void run (long n) {
-               // generate initial assignment
-               int[] walkBestAssign = new int[(numVars + 31) / 32];
-               for (int i = 0; i < walkBestAssign.length; ++i) 
-                  walkBestAssign[i] = prng.nextInteger();
-               int[] walkBestClauses = new int[(numClauses + 31) / 32];
-               updateClauses (walkBestAssign, walkBestClauses);
-               int walkBestTC = hammingWeightVector (walkBestClauses);
-               int walkBestBC = Integer.MAX_VALUE; 
-               int walkBestMC = 0;
-               walkBest = new Assignment (walkBestAssign, walkBestClauses, walkBestTC, 
-                                          walkBestBC, walkBestMC);
+         // perform maxIter walks, each thread reusing one walker, stopping the monitor even
+         // if a walk throws
+         try {
+            parallelFor (1,maxIter) .schedule (dynamic) .exec (new LongLoop() {
+               Random prng;
+               Assignment thrBest;
+               Walker walker;
+               long[] from;
+               long walks;
+               SolverMonitor.Probe probe;
+
+               // the thread's portfolio configuration, and its work since the last review
+               int config;
+               long recentWalks, recentFlips, recentNanos, recentUnsat, recentSolved;
+
+               public void start () {
+                  prng = new Random (seed + rank());
+                  thrBest = threadLocal (best);
+                  if (portfolio == null) {
+                     walker = new Walker (formula, maxSteps, stop, options);
+                  } else {
+                     config = portfolio.join (rank());
+                     walker = new Walker (formula, portfolio.getSteps (config), stop,
+                                          portfolio.getOptions (config));
+                  }
+                  from = new long[BitVector.words (formula.getNumVars() + 1)];
+                  if (monitor != null) {
+                     probe = monitor.probe (rank());
+                     walker.setProbe (probe);
+                  }
+               }
+
+               public void run (long n) {
+                  // skip the remaining walks once any thread has a solution
+                  if (stop.isStopped()) return;
+                  long[] before = thrBest.getAssign();
+                  long t0 = portfolio == null ? 0L : System.nanoTime();
+                  long f0 = walker.getFlips();
+                  boolean seeded = elite != null
+                                   && elite.seed (prng, formula.getNumVars(), from);
+                  int tc = walker.walkFrom (seeded ? from : null, prng, thrBest);
+                  if (tc == numClauses)
+                     stop.claim (rank(), n);
+                  ++walks;
 
-               // placeholder for the best of each step
-               Assignment stepBest = (Assignment) walkBest.clone();
- 
-               // perform local search
-               while (numClauses != walkBest.getTrueCount()) {
-                  // perform step
-                  for (int s = 0; s < maxSteps; ++s) {
-                     int[] newAssign = flip (walkBest.getAssign(), walkBest.getClauses(), walkBest.getTrueCount(), prng);
-                     int[] stepClauses = new int[(numClauses + 31)/ 32];
-                     updateClauses(newAssign, stepClauses);
-                     int stepTC = hammingWeightVector (stepClauses);
-                     int stepBC = breakCount (walkBest.getAssign(), stepClauses);
-                     int stepMC = makeCount (walkBest.getAssign(), stepClauses);
-                     Assignment step = new Assignment (newAssign, stepClauses, stepTC, stepBC, stepMC);
-                     stepBest.reduce(step);
-                  } 
+                  // a new best replaces the arrays, so new ones mean the thread's best improved
+                  if (elite != null && thrBest.getAssign() != before)
+                     elite.publish ((Assignment) thrBest.clone());
+                  if (portfolio != null)
+                     review (tc, System.nanoTime() - t0, walker.getFlips() - f0);
+               }
+
+               /**
+                * Reports a walk to the portfolio, switching configuration if told to
+                */
+               void review (int tc, long nanos, long flips) {
+                  ++recentWalks;
+                  recentNanos += nanos;
+                  recentFlips += flips;
+                  recentUnsat += numClauses - tc;
+                  if (tc == numClauses) ++recentSolved;
+                  if (recentWalks < Portfolio.REVIEW) return;
 
-                  // reassign if we have a better assignment
-                  if (walkBest.compareTo (stepBest) >= 0) break;
-                  else walkBest.reduce (stepBest);
+                  int next = portfolio.review (config, recentWalks, recentFlips, recentNanos,
+                                               recentUnsat, recentSolved, prng);
+                  recentWalks = recentFlips = recentNanos = recentUnsat = recentSolved = 0L;
+                  if (next == config) return;
+                  stats.add (walks, walker);
+                  walks = 0L;
+                  config = next;
+                  walker = new Walker (formula, portfolio.getSteps (config), stop,
+                                       portfolio.getOptions (config));
+                  walker.setProbe (probe);
                }
 
-               // if our best step is better than our current assignment,
-               // propagate the change
-               thrBest.reduce(walkBest);
+               public void finish () {
+                  stats.add (walks, walker);
+               }
+            });
+         } finally {
+            if (monitor != null) monitor.stop();
+         }
+
+         // end the complete search if the walks ran out first
+         boolean proven = false;
+         if (prover != null) {
+            stop.halt();
+            prover.join();
+            proven = complete.getStatus() == CdclSolver.UNSAT;
+            if (complete.getStatus() == CdclSolver.SAT) {
+               ClauseState state = new ClauseState (formula);
+               state.reset (complete.getModel());
+               best.reduce (new Assignment (state.getAssign(), state.getClauses(),
+                                            state.getTrueCount(), 0, 0));
             }
-         });
+         }
 
          // print out results
-         if (numClauses != best.getTrueCount()) System.out.println("No solution.");
-         else System.out.println ("Solution found: ");
+         if (proven) {
+            System.out.printf ("No solution: proven unsatisfiable by the complete search after %d ms\n",
+                               stop.getRefuted());
+         } else if (numClauses != best.getTrueCount()) {
+            System.out.println("No solution.");
+         } else if (stop.getRank() < 0) {
+            System.out.println ("Solution found: ");
+            System.out.printf ("\tFound by the complete search after %d ms\n", stop.getElapsed());
+         } else {
+            System.out.println ("Solution found: ");
+            System.out.printf ("\tFound by thread %d on walk %d after %d ms\n",
+                               stop.getRank(), stop.getWalk(), stop.getElapsed());
+         }
          System.out.println("\tTruth assignment: "); 
+         // a run that ended before its first walk has no assignment
+         long[] assign = pre.expand (best.getAssign().length == 0
+                                     ? new long[BitVector.words (formula.getNumVars() + 1)]
+                                     : best.getAssign());
          for (int i = 0; i < numVars; ++i) {
-            System.out.printf("\t\t%d -> %s\n", i + 1, lookup(i+1, best.getAssign()));
+            System.out.printf("\t\t%d -> %s\n", i + 1, BitVector.get(i+1, assign));
          }
+         System.out.println(stats.format (stop));
+         if (complete != null) System.out.println (complete);
+         if (elite != null) System.out.println (elite);
+         if (portfolio != null) System.out.println (portfolio);
 
       // handle any errors
-      } catch (NumberFormatException nfe) {
+      } catch (IllegalArgumentException iae) {
+         // also catches NumberFormatException
          usage();
       } catch (FileNotFoundException fnfe) {
          System.err.println("Error: File " + args[3] + " does not exist.");
       } catch (Exception e) {
          e.printStackTrace();
          System.err.println(e.getMessage());
-      } finally {
-         try {
-            sc.close();
-         } catch (Exception e) {}
       }
    }
 
@@ -154,11 +258,12 @@ public class WalkSATSmp extends edu.rit.pj2.Task {
     * Prints out a usage statement
     */
    private void usage() {
-      System.err.println("Usage: java pj2 WalkSATSeq <N> <nStep> <seed> <file>");
+      System.err.println("Usage: java pj2 WalkSATSmp <N> <nStep> <seed> <file> [<option>...]");
       System.err.println("N - long number of iterations");
       System.err.println("nStep - long number of assignments to generate per iteration");
       System.err.println("seed - long seed for PRNG");
       System.err.println("file - input file of CNF equation");
+      SolverOptions.usage();
       System.exit(0);
    }
 
@@ -166,200 +271,13 @@ public class WalkSATSmp extends edu.rit.pj2.Task {
     *    Creates a boolean satisfiability equation from a .dimacs file already in cnf
     *    @param   file  the path to the .dimacs file
     */
-   private void construct(String file) throws FileNotFoundException {
-      sc = new Scanner(new FileInputStream (file));
-      sc.nextLine();
-      String[] line = sc.nextLine().split(" ");
-      numVars = Integer.parseInt(line[2]);
-      numClauses = Integer.parseInt(line[3]);
-      equation = new int[numClauses][];
-      for (int i = 0; i < numClauses; ++i) {
-         line = sc.nextLine().split(" ");
-         int clauseLength = line.length - 1;
-         equation[i] = new int[clauseLength];
-         for (int j = 0; j < clauseLength; ++j) {
-            equation[i][j] = Integer.parseInt(line[j]);
-         }
-      }
-   }
-
-   /**
-    *    Looks up the value of a bit in a bit vector
-    *
-    *    @param   pos      the position of the bit
-    *    @param   bvector  the bit vector to perfom the lookup on
-    *    @return the value of the bit at position pos in bvector
-    */
-   private boolean lookup(int pos, int[] bvector) {
-      int i = Math.abs(pos);
-      int index = (i-1) / 32;
-      int position = 32 - (i % 32);
-      int assignment = bvector[index] & (1 << position);
-      return !(assignment == 0);
-   }
-
-   /**
-    *    Returns a truth assignment based on the given one
-    *    with the bit at a position flipped
-    *
-    *    @param   assignment  the truth assignment to advance
-    *    @param   clauses     the satisfiability of the clauses based on the assignment
-    *    @param   satClauses  the number of clauses satisfied by the assignment
-    *    @return the new truth assignment
-    */
-   private int[] flip (int[] assignment, int[] clauses, int satClauses, Random prng) {
-      int[] result = assignment.clone ();
-      // find a random unsatisfied clause, pick the c-thclause
-      int c = prng.nextInt (numClauses - satClauses) + 1;
-      int clause = 0;
-      int n = 1;
-      while (c > 0) {
-         ++clause;
-         if (!lookup (clause, clauses)) {
-            --c;
-         }
-      }
-      
-      int[] clauseVars = equation[clause - 1];
-
-      // pick a variable to flip
-      if (prng.nextInteger() % P_MOD <= P_REM) {
-         // flip a variable that breaks the least clauses
-         int bc = Integer.MAX_VALUE;
-         for (int v : clauseVars) {
-            flipBit(v, result);
-            int[] newClauses = new int[clauses.length];
-            updateClauses(result, newClauses);
-            if (bc > breakCount (clauses, newClauses)) n = v;
-            flipBit(v, result);
-         }
-      } else {
-         // flip a random var
-         n = clauseVars[prng.nextInt(clauseVars.length)];
-      }
-      flipBit(n, result);
-      return result;
-   }
-
-   /**
-    *    Evaluates a boolean clause based upon a truth assignment
-    *    @param   clause      the index of the clause in the equation
-    *    @param   assignment  the truth assignment of all the variables
-    *    @return true if the clause can be satisfied with the truth assignment
-    */
-   private boolean eval (int clause, int[] assignment) {
-      boolean result = false;
-      for (int v : equation[clause]) {
-         if ((v < 0 && (!lookup (v, assignment))) ||
-             (v > 0 && (lookup (v, assignment)))) {
-               result = true;
-               break;
-         }
-      }
-      return result;
-   }
-
-   /**
-    *    Flips the value truth assignment of a variable
-    *    @param   var      the variable to flip
-    *    @param   assign   the truth assignment to examine
-    */
-   private void flipBit(int index, int[] bitVector) {
-      int ind = Math.abs(index);
-      int i = (ind - 1) / 32;
-      int position = 32 - (ind % 32);
-      bitVector[i] ^= (1 << position);
-   }
-
-   /**
-    *    Returns a pretty printed clause
-    *    @param   clause   the index of a clause in the formula
-    *    @return a readable string version of the clause
-    */
-   private String clauseString(int clause) {
-      String accum = "";
-      int[] vars = equation[clause];
-      for (int c = 0; c < vars.length - 1; ++c) {
-         accum += "" + vars[c] + " \\/ ";
-      }
-      accum += "" + vars[vars.length - 1];
-      return accum;
-   }
-
-   /**
-    *    Takes the current truth assignment and updates the truth values of all the clauses
-    */
-   private void updateClauses (int[] assign, int[] clauses) {
-      // wipe out clauses
-      for (int i = 0; i < clauses.length; ++i)
-         clauses[i] = 0;
-      // go through each clause and update its satisfiability
-      for (int c = 0; c < numClauses; ++c) {
-         if (eval (c, assign)) {
-            flipBit (c + 1, clauses);
-         }
-      }
-   }
-
-   /**
-    *    Calculates the number of 1's in a bitstring version of an integer 
-    *
-    *    @param   word  the integer to perform the hamming weight calculation
-    *    @return the count of all the ones in the two's complement rep of the int
-    */
-   private int hammingWeight (int word) {
-      int result = 0;
-      while (word != 0) {
-         result += word & 1;
-         word  = word >>> 1;
-      }
-      return result;
-   }
-
-   /**
-    *    Calculates the number of 1's in a bitvector 
-    *
-    *    @param   bvector  the bitvector to aggregate
-    *    @return the count of all the ones in each word of the bitvector 
-    */
-   private int hammingWeightVector (int[] bvector) {
-      int result = 0;
-      for (int i = 0; i < bvector.length; ++i) {
-         result += hammingWeight (bvector[i]);
-         
-      }
-      return result;
-   }
-
-   /**
-    *    Calculates the makecount of a new assignment
-    *    Equivalent to everything in b that is not in a
-    *
-    *    @param   a  the former bitvector
-    *    @param   b  the new bitvector
-    *    @return the count of all clauses fixed by a new assignment
-    */
-   private int makeCount (int[] a, int[] b) {
-      int result = 0;
-      for (int i = 0; i < a.length; ++i) {
-         result += hammingWeight (b[i] & (~a[i]));
-      }
-      return result;
-   }
-
-   /**
-    *    Calculates the breakcount of a new array
-    *    Equivalent to everything in a that is not in b
-    *
-    *    @param   a  the former bitvector
-    *    @param   b  the new bitvector
-    *    @return the count of all clauses broken by a new assignment
-    */
-   private int breakCount (int[] a, int[] b) {
-      int result = 0;
-      for (int i = 0; i < a.length; ++i) {
-         result += hammingWeight (a[i] & (~b[i]));
-      }
-      return result;
+   private void construct(String file) throws IOException {
+      Formula parsed = options.load (file);
+      System.out.println ("Loaded " + parsed);
+      pre = options.preprocess (parsed);
+      System.out.println (pre);
+      formula = pre.getFormula();
+      numVars = parsed.getNumVars();
+      numClauses = formula.getNumClauses();
    }
 }
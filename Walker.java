@@ -0,0 +1,402 @@
+/*
+ *    File: Walker.java
+ *    Authors: Connor Adsit
+ *             Kevin Bradley
+ *             Christian Heinrich
+ *    Date: 2026-10-17
+ */
+
+import edu.rit.util.Random;
+
+/**
+ *    Performs local search walks over a boolean formula without allocating in the step loop
+ *
+ *    A walker owns its clause state and buffers, so one walker is made per thread and reused
+ *    for every walk that thread performs. Candidate flips are scored from the clause state
+ *    without touching the assignment, the accepted flip of a round is applied in place, and an
+ *    Assignment is only created when a walk ends better than the best seen so far.
+ *
+ *    @author Connor Adsit
+ *    @author Kevin Bradley
+ *    @author Christian Heinrich
+ */
+public class Walker {
+   private final ClauseState state;
+   private final long[] start;
+   private final long maxSteps;
+   private final StopSignal stop;
+   private final RestartPolicy restart;
+   private final Noise noise;
+   private final Heuristic heuristic;
+   private final ClauseWeights weights;
+   private final SlicedEvaluator sliced;
+   private final StepTeam team;
+   private final int[] batchVars = new int[SlicedEvaluator.WIDTH];
+   private final int[] batchBreaks = new int[SlicedEvaluator.WIDTH];
+   private final int[] batchMakes = new int[SlicedEvaluator.WIDTH];
+   private final long[] bestAssign;
+   private final long[] bestClauses;
+   private long walks;
+   private long flips;
+   private long candidates;
+   private long cutoffs;
+   private SolverMonitor.Probe probe;
+
+   /**
+    *    Creates a walker with its own clause state
+    *    @param   formula     the formula to search, shared between walkers
+    *    @param   maxSteps    the number of candidate flips generated per step
+    */
+   public Walker (Formula formula, long maxSteps) {
+      this (formula, maxSteps, null);
+   }
+
+   /**
+    *    Creates a walker that gives up its walk as soon as a stop signal is raised
+    *    @param   formula     the formula to search, shared between walkers
+    *    @param   maxSteps    the number of candidate flips generated per step
+    *    @param   stop        the signal shared by all threads, or null to never stop early
+    */
+   public Walker (Formula formula, long maxSteps, StopSignal stop) {
+      this (formula, maxSteps, stop, new SolverOptions());
+   }
+
+   /**
+    *    Creates a walker with its own noise level, heuristic, clause weights and restart policy
+    *    @param   formula     the formula to search, shared between walkers
+    *    @param   maxSteps    the number of candidate flips generated per step
+    *    @param   stop        the signal shared by all threads, or null to never stop early
+    *    @param   options     the search settings of the run
+    */
+   public Walker (Formula formula, long maxSteps, StopSignal stop, SolverOptions options) {
+      this.stop = stop;
+      this.restart = options.getRestart();
+      this.noise = options.newNoise (formula.getNumClauses());
+      this.heuristic = options.newHeuristic (formula, noise);
+      this.weights = options.newWeights (formula.getNumClauses());
+      this.sliced = options.newEvaluator (formula);
+      this.team = options.newTeam (formula, noise);
+      this.state = new ClauseState (formula);
+      if (weights != null) state.trackWeights (weights.getWeights());
+      this.start = new long[state.getAssign().length];
+      this.bestAssign = new long[state.getAssign().length];
+      this.bestClauses = new long[state.getClauses().length];
+      this.maxSteps = maxSteps;
+   }
+
+   /**
+    *    Performs one walk from a random truth assignment
+    *
+    *    Without a restart policy the walk ends at the first step round that does not
+    *    improve it. Under a policy, every round moves to its best candidate, improving or
+    *    not, until the walk's cutoff; the best assignment seen along the way is kept.
+    *
+    *    @param   prng  the pseudorandom number generator of the calling thread
+    *    @param   best  the best assignment so far, replaced if the walk ends better
+    *    @return the number of clauses satisfied by the best assignment of the walk
+    */
+   public int walk (Random prng, Assignment best) {
+      return walkFrom (null, prng, best);
+   }
+
+   /**
+    *    Performs one walk from a given truth assignment, as walk() does from a random one
+    *    @param   from  the truth assignment to start from, or null for a random one
+    *    @param   prng  the pseudorandom number generator of the calling thread
+    *    @param   best  the best assignment so far, replaced if the walk ends better
+    *    @return the number of clauses satisfied by the best assignment of the walk
+    */
+   public int walkFrom (long[] from, Random prng, Assignment best) {
+      if (weights != null) return weightedWalk (from, prng, best);
+
+      // generate initial assignment
+      begin (from, prng);
+      SolverMonitor.WalkEvent event = probe == null ? null : probe.begin();
+      long walkFlips = flips;
+      int numClauses = state.getNumClauses();
+      int walkBestTC = state.getTrueCount();
+      int walkBestBC = Integer.MAX_VALUE;
+      int walkBestMC = 0;
+
+      boolean continuing = restart.continuesOnStagnation();
+      long cutoff = restart.cutoff (++walks);
+      long rounds = 0;
+      if (continuing) snapshot();
+
+      // the best of each step, and the variable flipped to reach it
+      int stepBestTC = walkBestTC;
+      int stepBestBC = walkBestBC;
+      int stepBestMC = walkBestMC;
+      int stepVar = 0;
+
+      // perform local search
+      while (numClauses != walkBestTC) {
+         // another thread has solved the formula
+         if (stop != null && stop.isStopped()) break;
+         if (probe != null) probe.round (flips, walkBestTC);
+
+         // the walk has used up its rounds
+         if (rounds == cutoff) {
+            ++cutoffs;
+            break;
+         }
+         ++rounds;
+
+         // a continuing walk picks the best candidate of this round alone
+         if (continuing) {
+            stepBestTC = -1;
+            stepVar = 0;
+         }
+
+         // perform step on the team's threads, or here a batch at a time
+         if (team != null) {
+            candidates += team.round (state, maxSteps);
+            if (team.getBestVar() != 0
+                && Assignment.compare (stepBestTC, stepBestBC, stepBestMC, team.getBestTrueCount(),
+                                       team.getBestBreakCount(), team.getBestMakeCount()) < 0) {
+               stepBestTC = team.getBestTrueCount();
+               stepBestBC = team.getBestBreakCount();
+               stepBestMC = team.getBestMakeCount();
+               stepVar = team.getBestVar();
+            }
+         }
+         for (long s = 0; team == null && s < maxSteps; s += SlicedEvaluator.WIDTH) {
+            int n = (int) Math.min (SlicedEvaluator.WIDTH, maxSteps - s);
+            for (int j = 0; j < n; ++j)
+               batchVars[j] = flip (prng);
+            if (sliced != null) {
+               sliced.evaluate (state, batchVars, n, batchBreaks, batchMakes);
+            } else {
+               for (int j = 0; j < n; ++j) {
+                  batchBreaks[j] = state.breakCount (batchVars[j]);
+                  batchMakes[j] = state.makeCount (batchVars[j]);
+               }
+            }
+            candidates += n;
+
+            for (int j = 0; j < n; ++j) {
+               int stepBC = batchBreaks[j];
+               int stepMC = batchMakes[j];
+               int stepTC = state.getTrueCount() - stepBC + stepMC;
+               if (Assignment.compare (stepBestTC, stepBestBC, stepBestMC, stepTC, stepBC, stepMC) < 0) {
+                  stepBestTC = stepTC;
+                  stepBestBC = stepBC;
+                  stepBestMC = stepMC;
+                  stepVar = batchVars[j];
+               }
+            }
+         }
+
+         boolean improved = Assignment.compare (walkBestTC, walkBestBC, walkBestMC,
+                                                stepBestTC, stepBestBC, stepBestMC) < 0;
+         if (continuing) {
+            // move regardless, and remember the walk's best assignment
+            if (stepVar == 0) break;
+            state.flip (stepVar);
+            heuristic.flipped (stepVar, ++flips);
+            if (team != null) team.flipped (stepVar, flips);
+            noise.update (flips, numClauses - state.getTrueCount());
+            if (improved) {
+               walkBestTC = stepBestTC;
+               walkBestBC = stepBestBC;
+               walkBestMC = stepBestMC;
+               snapshot();
+            }
+         } else {
+            // reassign if we have a better assignment
+            if (!improved) break;
+            walkBestTC = stepBestTC;
+            walkBestBC = stepBestBC;
+            walkBestMC = stepBestMC;
+            state.flip (stepVar);
+            heuristic.flipped (stepVar, ++flips);
+            if (team != null) team.flipped (stepVar, flips);
+            noise.update (flips, numClauses - state.getTrueCount());
+         }
+      }
+
+      if (probe != null) probe.walked (event, flips, flips - walkFlips, walkBestTC);
+      offer (best, continuing, walkBestTC, walkBestBC, walkBestMC);
+      return walkBestTC;
+   }
+
+   /**
+    *    Performs one walk, guided by clause weights
+    *
+    *    Each round moves to the candidate that most lowers the weight of the falsified
+    *    clauses. When no candidate lowers it, the weights are raised instead and the round
+    *    makes no flip. The walk ends at a solution or at its restart cutoff, or, without a
+    *    restart policy, after as many rounds in a row as there are clauses without
+    *    improving its best assignment.
+    *
+    *    @param   from  the truth assignment to start from, or null for a random one
+    *    @param   prng  the pseudorandom number generator of the calling thread
+    *    @param   best  the best assignment so far, replaced if the walk ends better
+    *    @return the number of clauses satisfied by the best assignment of the walk
+    */
+   private int weightedWalk (long[] from, Random prng, Assignment best) {
+      // the state scores the start against the weights as they are, so reset them first
+      weights.reset();
+      begin (from, prng);
+      SolverMonitor.WalkEvent event = probe == null ? null : probe.begin();
+      long walkFlips = flips;
+      int numClauses = state.getNumClauses();
+      int walkBestTC = state.getTrueCount();
+      int walkBestBC = Integer.MAX_VALUE;
+      int walkBestMC = 0;
+      snapshot();
+
+      boolean bounded = restart.continuesOnStagnation();
+      long cutoff = restart.cutoff (++walks);
+      long rounds = 0;
+      long lastImproved = 0;
+
+      while (numClauses != walkBestTC) {
+         // another thread has solved the formula
+         if (stop != null && stop.isStopped()) break;
+         if (probe != null) probe.round (flips, walkBestTC);
+
+         // the walk has used up its rounds, or stagnated
+         if (rounds == cutoff) {
+            ++cutoffs;
+            break;
+         }
+         if (!bounded && rounds - lastImproved >= numClauses) break;
+         ++rounds;
+
+         // find the candidate with the best weighted score
+         double stepScore = Double.NEGATIVE_INFINITY;
+         int stepVar = 0;
+         for (long s = 0; s < maxSteps; ++s) {
+            int v = flip (prng);
+            double score = state.weightedScore (v);
+            ++candidates;
+            if (score > stepScore) {
+               stepScore = score;
+               stepVar = v;
+            }
+         }
+         if (stepVar == 0) break;
+
+         // at a local minimum, change the landscape instead of moving
+         double tolerance = weights.tolerance();
+         if (stepScore < -tolerance
+             || (stepScore <= tolerance && !weights.takesFlatMove (prng))) {
+            weights.bump (state, prng);
+            continue;
+         }
+
+         int stepBC = state.breakCount (stepVar);
+         int stepMC = state.makeCount (stepVar);
+         state.flip (stepVar);
+         heuristic.flipped (stepVar, ++flips);
+         noise.update (flips, numClauses - state.getTrueCount());
+         if (Assignment.compare (walkBestTC, walkBestBC, walkBestMC,
+                                 state.getTrueCount(), stepBC, stepMC) < 0) {
+            walkBestTC = state.getTrueCount();
+            walkBestBC = stepBC;
+            walkBestMC = stepMC;
+            lastImproved = rounds;
+            snapshot();
+         }
+      }
+
+      if (probe != null) probe.walked (event, flips, flips - walkFlips, walkBestTC);
+      offer (best, true, walkBestTC, walkBestBC, walkBestMC);
+      return walkBestTC;
+   }
+
+   /**
+    *    Loads the starting truth assignment of a new walk
+    *    @param   from  the truth assignment to start from, or null for a random one
+    *    @param   prng  the pseudorandom number generator of the calling thread
+    */
+   private void begin (long[] from, Random prng) {
+      for (int i = 0; i < start.length; ++i)
+         start[i] = from == null ? prng.nextLong() : i < from.length ? from[i] : 0L;
+      state.reset (start);
+      noise.restart (flips);
+      heuristic.restart();
+      if (team != null) team.restart (prng);
+   }
+
+   /**
+    *    Replaces the best assignment so far with the walk's best, if it is better
+    *    @param   best        the best assignment so far
+    *    @param   snapshotted true if the walk's best is in the snapshot buffers, false if it
+    *                         is the current assignment
+    */
+   private void offer (Assignment best, boolean snapshotted, int tc, int bc, int mc) {
+      // only materialize the walk's best if it improves on the best so far
+      if (Assignment.compare (best.getTrueCount(), best.getBreakCount(), best.getMakeCount(),
+                              tc, bc, mc) < 0) {
+         best.reduce (snapshotted
+                      ? new Assignment (bestAssign, bestClauses, tc, bc, mc)
+                      : new Assignment (state.getAssign(), state.getClauses(), tc, bc, mc));
+      }
+   }
+
+   /**
+    *    Copies the current assignment into the walk's best buffers
+    */
+   private void snapshot () {
+      System.arraycopy (state.getAssign(), 0, bestAssign, 0, bestAssign.length);
+      System.arraycopy (state.getClauses(), 0, bestClauses, 0, bestClauses.length);
+   }
+
+   /**
+    *    Reports this walker's progress to a monitor from now on
+    *    @param   probe the walker's probe, or null to stop reporting
+    */
+   public void setProbe (SolverMonitor.Probe probe) {
+      this.probe = probe;
+      if (probe != null) probe.attach (flips);
+   }
+
+   /**
+    *    @return the number of flips applied by this walker so far
+    */
+   public long getFlips () {
+      return this.flips;
+   }
+
+   /**
+    *    @return the number of candidate flips scored by this walker so far
+    */
+   public long getCandidates () {
+      return this.candidates;
+   }
+
+   /**
+    *    @return the number of walks this walker ended at their restart cutoff
+    */
+   public long getCutoffs () {
+      return this.cutoffs;
+   }
+
+   /**
+    *    @return the number of local minima at which this walker raised its clause weights
+    */
+   public long getBumps () {
+      return weights == null ? 0L : weights.getBumps();
+   }
+
+   /**
+    *    @return the noise level of this walker
+    */
+   public Noise getNoise () {
+      return this.noise;
+   }
+
+   /**
+    *    Chooses a variable whose flip advances the current truth assignment
+    *
+    *    @param   prng  the pseudorandom number generator of the calling thread
+    *    @return the variable to flip
+    */
+   private int flip (Random prng) {
+      // pick a random unsatisfied clause straight from the pool, and let the heuristic choose
+      UnsatPool unsat = state.getUnsat();
+      return heuristic.pick (state, unsat.get (prng.nextInt (unsat.size())), prng);
+   }
+}